@@ -0,0 +1,64 @@
+package com.minjemin.product.benchmark;
+
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.Rental;
+import com.minjemin.product.model.RentalStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// deterministic catalog and rental rows shaped like production data
+final class Fixtures {
+
+    private static final String[] WORDS = {"Camera", "Tent", "Bike", "Drone", "Projector", "Kayak", "Drill", "Ladder"};
+    private static final RentalStatus[] STATUSES = RentalStatus.values();
+
+    private Fixtures() {
+    }
+
+    static List<Item> items(int count) {
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            items.add(Item.builder()
+                    .id((long) i + 1)
+                    .name(word + " " + (i + 1))
+                    .description("Well kept " + word.toLowerCase() + ", pick up in Bandung")
+                    .pricePerDay((double) (50 + random.nextInt(950)) * 1000)
+                    .stock(1 + random.nextInt(3))
+                    .available(true)
+                    .ownerId("owner-" + (i % 500))
+                    .build());
+        }
+        return items;
+    }
+
+    static List<Rental> rentals(List<Item> items, int count) {
+        Random random = new Random(7);
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 8, 0);
+        LocalDate start = LocalDate.of(2026, 2, 1);
+        List<Rental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = items.get(random.nextInt(items.size()));
+            int days = 1 + random.nextInt(7);
+            LocalDate startDate = start.plusDays(random.nextInt(90));
+            rentals.add(Rental.builder()
+                    .id((long) i + 1)
+                    .item(item)
+                    .borrowerId("borrower-" + (i % 1000))
+                    .borrowerName("Borrower " + (i % 1000))
+                    .startDate(startDate)
+                    .endDate(startDate.plusDays(days))
+                    .totalPrice(item.getPricePerDay() * days)
+                    .status(STATUSES[random.nextInt(STATUSES.length)])
+                    .createdAt(createdAt.minusMinutes(i))
+                    .paid(random.nextBoolean())
+                    .build());
+        }
+        return rentals;
+    }
+}
@@ -0,0 +1,74 @@
+package com.minjemin.product.benchmark;
+
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.mapper.ItemMapperImpl;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.service.ItemAvailabilityIndex;
+import com.minjemin.product.service.ItemSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The in-memory indexes behind /items/search and /items/available, filled directly without a database.
+// Outside a transaction the availability index applies putItem/book immediately.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+
+    @Param({"10000", "100000"})
+    private int items;
+
+    private ItemSearchIndex searchIndex;
+    private ItemAvailabilityIndex availabilityIndex;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        searchIndex = new ItemSearchIndex(null, new ItemMapperImpl(), meterRegistry);
+        availabilityIndex = new ItemAvailabilityIndex(null, null, meterRegistry);
+
+        Random random = new Random(1);
+        for (Item item : Fixtures.items(items)) {
+            searchIndex.index(item);
+            availabilityIndex.putItem(item.getId(), item.getStock());
+            // about one booking per item spread over three months
+            LocalDate start = LocalDate.of(2026, 2, 1).plusDays(random.nextInt(90));
+            availabilityIndex.book(item.getId(), start, start.plusDays(1 + random.nextInt(7)));
+        }
+    }
+
+    @Benchmark
+    public List<ItemDTO> searchPrefix() {
+        return searchIndex.search("cam", 20);
+    }
+
+    @Benchmark
+    public List<ItemDTO> searchTwoTerms() {
+        return searchIndex.search("kayak bandung", 20);
+    }
+
+    @Benchmark
+    public List<Long> availableWeek() {
+        return availabilityIndex.availableItems(FROM, FROM.plusDays(6), null, 20);
+    }
+}
@@ -0,0 +1,81 @@
+package com.minjemin.product.benchmark;
+
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.mapper.ItemMapper;
+import com.minjemin.product.mapper.ItemMapperImpl;
+import com.minjemin.product.mapper.RentalMapper;
+import com.minjemin.product.mapper.RentalMapperImpl;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.Rental;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// MapStruct mappers over a page (20, 100 = Cursors.MAX_SIZE) and an export-sized list
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int size;
+
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+    private final RentalMapper rentalMapper = new RentalMapperImpl();
+    private List<Item> items;
+    private List<ItemDTO> itemDtos;
+    private List<Rental> rentals;
+
+    @Setup
+    public void setUp() {
+        items = Fixtures.items(size);
+        rentals = Fixtures.rentals(items, size);
+        itemDtos = new ArrayList<>(size);
+        for (Item item : items) {
+            itemDtos.add(itemMapper.toDto(item));
+        }
+    }
+
+    @Benchmark
+    public List<RentalDTO> rentalToDto() {
+        List<RentalDTO> result = new ArrayList<>(rentals.size());
+        for (Rental rental : rentals) {
+            result.add(rentalMapper.toDto(rental));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemDTO> itemToDto() {
+        List<ItemDTO> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            result.add(itemMapper.toDto(item));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Item> itemToEntity() {
+        List<Item> result = new ArrayList<>(itemDtos.size());
+        for (ItemDTO dto : itemDtos) {
+            result.add(itemMapper.toEntity(dto));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package com.minjemin.product.benchmark;
+
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.mapper.ItemMapper;
+import com.minjemin.product.mapper.ItemMapperImpl;
+import com.minjemin.product.mapper.RentalMapper;
+import com.minjemin.product.mapper.RentalMapperImpl;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.Rental;
+import com.minjemin.product.service.Cursors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// getMyRentals / getRequestRentals / getMyItems filter in SQL now (keyset specifications), what stays in
+// Java per request is turning the pageSize + 1 rows into a CursorPageDTO. Same steps as the private
+// findPage / toPage in RentalServiceImpl and ItemServiceImpl, plus decoding the incoming cursor.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageAssemblyBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+    private final RentalMapper rentalMapper = new RentalMapperImpl();
+    private List<Item> items;
+    private List<Rental> rentals;
+    private String rentalCursor;
+    private String itemCursor;
+
+    @Setup
+    public void setUp() {
+        items = Fixtures.items(pageSize + 1);
+        rentals = Fixtures.rentals(items, pageSize + 1);
+        Rental last = rentals.get(pageSize - 1);
+        rentalCursor = Cursors.encode(last.getCreatedAt(), last.getId());
+        itemCursor = Cursors.encode(items.get(pageSize - 1).getId());
+    }
+
+    @Benchmark
+    public CursorPageDTO<RentalDTO> rentalPage() {
+        boolean hasNext = rentals.size() > pageSize;
+        List<Rental> page = hasNext ? rentals.subList(0, pageSize) : rentals;
+        String nextCursor = null;
+        if (hasNext) {
+            Rental last = page.get(page.size() - 1);
+            nextCursor = Cursors.encode(last.getCreatedAt(), last.getId());
+        }
+        return CursorPageDTO.<RentalDTO>builder()
+                .content(page.stream().map(rentalMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Benchmark
+    public CursorPageDTO<ItemDTO> itemPage() {
+        boolean hasNext = items.size() > pageSize;
+        List<Item> page = hasNext ? items.subList(0, pageSize) : items;
+        return CursorPageDTO.<ItemDTO>builder()
+                .content(page.stream().map(itemMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(hasNext ? Cursors.encode(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
+
+    @Benchmark
+    public String[] decodeRentalCursor() {
+        return Cursors.decode(rentalCursor, 2);
+    }
+
+    @Benchmark
+    public Long decodeItemCursor() {
+        return Cursors.decodeId(itemCursor);
+    }
+}
@@ -0,0 +1,94 @@
+package com.minjemin.product.benchmark;
+
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.Rental;
+import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.service.ItemSpecification;
+import com.minjemin.product.service.RentalSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Predicate construction of the JPA specifications on a real Hibernate CriteriaBuilder,
+// including the CriteriaQuery and Root every repository call starts from. No SQL is rendered or run.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecificationBenchmark {
+
+    private static final Set<RentalStatus> ACTIVE = EnumSet.of(RentalStatus.APPROVED, RentalStatus.ONGOING);
+    private static final LocalDateTime AFTER = LocalDateTime.of(2026, 1, 1, 8, 0);
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Item.class)
+                .addAnnotatedClass(Rental.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:specification-benchmark")
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate filterRentals() {
+        CriteriaQuery<Rental> query = criteriaBuilder.createQuery(Rental.class);
+        Root<Rental> root = query.from(Rental.class);
+        return RentalSpecification.filterRentals("borrower-1", "camera", ACTIVE)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate borrowerRentalsAfter() {
+        CriteriaQuery<Rental> query = criteriaBuilder.createQuery(Rental.class);
+        Root<Rental> root = query.from(Rental.class);
+        return RentalSpecification.borrowerRentalsAfter("borrower-1", "camera", ACTIVE, AFTER, 1000L)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate ownerRentalsAfter() {
+        CriteriaQuery<Rental> query = criteriaBuilder.createQuery(Rental.class);
+        Root<Rental> root = query.from(Rental.class);
+        return RentalSpecification.ownerRentalsAfter("owner-1", null, ACTIVE, AFTER, 1000L)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate filterMyItems() {
+        CriteriaQuery<Item> query = criteriaBuilder.createQuery(Item.class);
+        Root<Item> root = query.from(Item.class);
+        return ItemSpecification.filterMyItems("owner-1", 1000L, "camera", 100_000d, 300_000d)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+}
@@ -0,0 +1,68 @@
+package com.minjemin.product.config;
+
+import com.minjemin.product.security.KeycloakAuthorities;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// extract is the raw claim walk, convert is the per-request path with the authorities cache hit.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorityExtractionBenchmark {
+
+    private final SecurityConfig securityConfig = new SecurityConfig();
+    private JwtAuthenticationConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        converter = securityConfig.jwtAuthenticationConverter(10_000, new SimpleMeterRegistry());
+        // claims as Keycloak issues them for the react-app client
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .jti("8f14e45f-ceea-467f-a0e6-4b4a3b1f1c3a")
+                .subject("3c6e0b8a-9c0a-4d8e-9f43-2b0ad4f1b5c7")
+                .issuer("http://localhost:14082/realms/minjemin")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("realm_access", Map.of("roles",
+                        List.of("offline_access", "uma_authorization", "default-roles-minjemin", "admin-role")))
+                .claim("resource_access", Map.of(
+                        "react-app", Map.of("roles", List.of("user", "owner")),
+                        "account", Map.of("roles", List.of("manage-account", "view-profile"))))
+                .claim("preferred_username", "benchmark")
+                .build();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> extract() {
+        return KeycloakAuthorities.extract(jwt);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+}
@@ -0,0 +1,115 @@
+package com.minjemin.product.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// HTTP calls as a given user, timed into the stats of the current phase under an endpoint label
+class LoadClient {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    // same modules as the service's mapper, the DTOs only have their @Builder constructor
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new ParameterNamesModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final String baseUrl;
+    private final StubIssuer issuer;
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    LoadClient(String baseUrl, StubIssuer issuer) {
+        this.baseUrl = baseUrl;
+        this.issuer = issuer;
+    }
+
+    // starts a fresh set of stats and returns it
+    Map<String, EndpointStats> newStats() {
+        stats = new ConcurrentHashMap<>();
+        return stats;
+    }
+
+    String get(String endpoint, String path, String userId) {
+        return send(endpoint, request(path, userId).GET());
+    }
+
+    String post(String endpoint, String path, String userId, Object body) {
+        return send(endpoint, request(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(write(body))));
+    }
+
+    String post(String endpoint, String path, String userId, String contentType, String body) {
+        return send(endpoint, request(path, userId)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    <T> T read(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected response: " + json, e);
+        }
+    }
+
+    <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected response: " + json, e);
+        }
+    }
+
+    String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (userId != null) {
+            builder.header("Authorization", "Bearer " + issuer.tokenFor(userId));
+        }
+        return builder;
+    }
+
+    // null unless 2xx, failures are counted against the endpoint
+    private String send(String endpoint, HttpRequest.Builder request) {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, name -> new EndpointStats());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() / 100 == 2;
+            endpointStats.record(System.nanoTime() - start, ok);
+            return ok ? response.body() : null;
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
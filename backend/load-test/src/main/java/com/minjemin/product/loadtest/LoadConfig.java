@@ -0,0 +1,39 @@
+package com.minjemin.product.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// -Dload.* system properties, defaults sized for a laptop run of a few minutes
+record LoadConfig(int users,
+                  Duration warmup,
+                  Duration duration,
+                  int owners,
+                  int itemsPerOwner,
+                  int borrowers,
+                  int historyPerBorrower,
+                  String jdbcUrl,
+                  String jdbcUsername,
+                  String jdbcPassword,
+                  Path report) {
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Integer.getInteger("load.users", 50),
+                duration("load.warmup", "10s"),
+                duration("load.duration", "30s"),
+                Integer.getInteger("load.owners", 50),
+                Integer.getInteger("load.items-per-owner", 200),
+                Integer.getInteger("load.borrowers", 500),
+                Integer.getInteger("load.history-per-borrower", 10),
+                System.getProperty("load.jdbc-url"),
+                System.getProperty("load.jdbc-username", "postgres"),
+                System.getProperty("load.jdbc-password", "postgres"),
+                Path.of(System.getProperty("load.report", "load-report.json")));
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
@@ -0,0 +1,90 @@
+package com.minjemin.product.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+@Builder
+class LoadReport {
+
+    private Instant startedAt;
+    private String javaVersion;
+    private int users;
+    private long seededItems;
+    private List<Phase> phases;
+
+    @Data
+    @Builder
+    static class Phase {
+        private String name;
+        private double seconds;
+        private double heapBeforeMb;
+        private double heapAfterMb;
+        private double heapGrowthMb;
+        private List<Endpoint> endpoints;
+    }
+
+    @Data
+    @Builder
+    static class Endpoint {
+        private String endpoint;
+        private long requests;
+        private long errors;
+        private double throughput;
+        private double p50Millis;
+        private double p95Millis;
+        private double p99Millis;
+        private double maxMillis;
+    }
+
+    static List<Endpoint> endpoints(Map<String, EndpointStats> stats, double seconds) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        new TreeMap<>(stats).forEach((name, endpointStats) -> endpoints.add(Endpoint.builder()
+                .endpoint(name)
+                .requests(endpointStats.count())
+                .errors(endpointStats.errors())
+                .throughput(endpointStats.count() / seconds)
+                .p50Millis(endpointStats.percentileMillis(50))
+                .p95Millis(endpointStats.percentileMillis(95))
+                .p99Millis(endpointStats.percentileMillis(99))
+                .maxMillis(endpointStats.maxMillis())
+                .build()));
+        return endpoints;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%-34s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Phase phase : phases) {
+            out.printf("-- %s (%.0f s, heap %+.1f MB)%n", phase.getName(), phase.getSeconds(), phase.getHeapGrowthMb());
+            for (Endpoint e : phase.getEndpoints()) {
+                out.printf("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", e.getEndpoint(), e.getRequests(),
+                        e.getErrors(), e.getThroughput(), e.getP50Millis(), e.getP95Millis(), e.getP99Millis(),
+                        e.getMaxMillis());
+            }
+        }
+    }
+
+    void write(Path path) throws IOException {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build();
+        Files.writeString(path, objectMapper.writeValueAsString(this));
+    }
+}
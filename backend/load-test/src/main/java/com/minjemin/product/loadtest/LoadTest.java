@@ -0,0 +1,180 @@
+package com.minjemin.product.loadtest;
+
+import com.minjemin.product.MinjeminProductServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// End-to-end load test: boots the product service against Postgres (embedded unless load.jdbc-url is set)
+// and a stub Keycloak issuer, seeds owners, items and rental history over the API, then drives one phase
+// per read endpoint plus the full rental lifecycle with load.users closed-loop clients.
+// Program arguments are passed on to the service, e.g. --spring.datasource.hikari.maximum-pool-size=30.
+@Slf4j
+public class LoadTest {
+
+    interface Step {
+        void run(Random random);
+    }
+
+    private final LoadConfig config;
+    private final LoadClient client;
+    private final AtomicLong seed = new AtomicLong(7);
+
+    LoadTest(LoadConfig config, LoadClient client) {
+        this.config = config;
+        this.client = client;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext context = null;
+        try (StubIssuer issuer = new StubIssuer()) {
+            String jdbcUrl = config.jdbcUrl();
+            String username = config.jdbcUsername();
+            String password = config.jdbcPassword();
+            if (jdbcUrl == null) {
+                postgres = EmbeddedPostgres.builder()
+                        .setServerConfig("max_connections", "300")
+                        .start();
+                jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+                username = "postgres";
+                password = "postgres";
+            }
+
+            // system properties outrank the service's application.yaml, program arguments still outrank these
+            System.setProperty("server.port", "0");
+            System.setProperty("spring.datasource.url", jdbcUrl);
+            System.setProperty("spring.datasource.username", username);
+            System.setProperty("spring.datasource.password", password);
+            System.setProperty("spring.security.oauth2.resourceserver.jwt.issuer-uri", issuer.issuerUri());
+            System.setProperty("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", issuer.jwkSetUri());
+            context = new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                    .run(args);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            LoadClient client = new LoadClient("http://localhost:" + port, issuer);
+            LoadReport report = new LoadTest(config, client).run();
+            report.print(System.out);
+            report.write(config.report());
+            log.info("Report written to {}", config.report().toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+        // HttpClient selector threads would otherwise keep the JVM alive
+        System.exit(0);
+    }
+
+    LoadReport run() throws InterruptedException {
+        Instant startedAt = Instant.now();
+        Scenarios scenarios = new Scenarios(client, config);
+        List<LoadReport.Phase> phases = new ArrayList<>();
+
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        Map<String, EndpointStats> seedStats = client.newStats();
+        scenarios.seed();
+        phases.add(phase("seed", seedStats, seconds(start), heapBefore));
+
+        phases.add(runPhase("browse items", scenarios::browseItems));
+        phases.add(runPhase("search items", scenarios::searchItems));
+        phases.add(runPhase("available items", scenarios::availableItems));
+        phases.add(runPhase("my rentals", scenarios::myRentals));
+        phases.add(runPhase("rental requests", scenarios::requestRentals));
+        phases.add(runPhase("rental lifecycle", scenarios::rentalLifecycle));
+
+        return LoadReport.builder()
+                .startedAt(startedAt)
+                .javaVersion(System.getProperty("java.version"))
+                .users(config.users())
+                .seededItems(scenarios.catalogSize())
+                .phases(phases)
+                .build();
+    }
+
+    // warmup with throwaway stats, then the measured run
+    private LoadReport.Phase runPhase(String name, Step step) throws InterruptedException {
+        log.info("Phase {}: warmup {}, run {}", name, config.warmup(), config.duration());
+        client.newStats();
+        drive(step, config.warmup().toNanos());
+
+        long heapBefore = usedHeapAfterGc();
+        Map<String, EndpointStats> stats = client.newStats();
+        long start = System.nanoTime();
+        drive(step, config.duration().toNanos());
+        return phase(name, stats, seconds(start), heapBefore);
+    }
+
+    private void drive(Step step, long nanos) throws InterruptedException {
+        if (nanos <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + nanos;
+        ExecutorService users = Executors.newFixedThreadPool(config.users());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < config.users(); i++) {
+                Random random = new Random(seed.incrementAndGet());
+                running.add(users.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        step.run(random);
+                    }
+                }));
+            }
+            for (Future<?> user : running) {
+                try {
+                    user.get();
+                } catch (ExecutionException e) {
+                    log.warn("Load client failed", e.getCause());
+                }
+            }
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    private static LoadReport.Phase phase(String name, Map<String, EndpointStats> stats, double seconds, long heapBefore) {
+        long heapAfter = usedHeapAfterGc();
+        return LoadReport.Phase.builder()
+                .name(name)
+                .seconds(seconds)
+                .heapBeforeMb(megabytes(heapBefore))
+                .heapAfterMb(megabytes(heapAfter))
+                .heapGrowthMb(megabytes(heapAfter - heapBefore))
+                .endpoints(LoadReport.endpoints(stats, seconds))
+                .build();
+    }
+
+    // service and load clients share the JVM, so this is the retained heap of both
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
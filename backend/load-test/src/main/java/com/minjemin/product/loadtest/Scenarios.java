@@ -0,0 +1,162 @@
+package com.minjemin.product.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.ImportResultDTO;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.service.Cursors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Synthetic owners and borrowers, the seeded catalog and the user journeys driven against it.
+// Owners and borrowers use disjoint ids, so nobody ever tries to rent their own item.
+@Slf4j
+class Scenarios {
+
+    private static final String[] WORDS = {"Camera", "Tent", "Bike", "Drone", "Projector", "Kayak", "Drill", "Ladder",
+            "Speaker", "Guitar", "Stroller", "Telescope"};
+    private static final String[] CITIES = {"Bandung", "Jakarta", "Depok", "Bogor", "Bekasi"};
+
+    private final LoadClient client;
+    private final LoadConfig config;
+    private final List<ItemDTO> catalog = new ArrayList<>();
+    // lifecycle bookings start a year out and history two years out, so neither collides with the other
+    private final LocalDate lifecycleStart = LocalDate.now().plusYears(1);
+    private final LocalDate historyStart = LocalDate.now().plusYears(2);
+
+    Scenarios(LoadClient client, LoadConfig config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    static String owner(int i) {
+        return "load-owner-" + i;
+    }
+
+    static String borrower(int i) {
+        return "load-borrower-" + i;
+    }
+
+    void seed() {
+        Random random = new Random(42);
+        long imported = 0;
+        for (int o = 0; o < config.owners(); o++) {
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = 0; i < config.itemsPerOwner(); i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                ndjson.append(client.write(ItemDTO.builder()
+                        .name(word + " " + (char) ('A' + random.nextInt(26)) + (o * config.itemsPerOwner() + i))
+                        .description(word + " for rent in " + CITIES[random.nextInt(CITIES.length)] + ", well kept")
+                        .pricePerDay((double) (20 + random.nextInt(480)) * 1000)
+                        .stock(1 + random.nextInt(3))
+                        .build())).append('\n');
+            }
+            String result = client.post("POST /items/import", "/items/import", owner(o), "application/x-ndjson",
+                    ndjson.toString());
+            if (result != null) {
+                imported += client.read(result, ImportResultDTO.class).getImported();
+            }
+        }
+        loadCatalog();
+        log.info("Seeded {} items for {} owners", imported, config.owners());
+
+        long rentals = 0;
+        for (int b = 0; b < config.borrowers(); b++) {
+            List<RentalDTO> cart = new ArrayList<>();
+            for (int i = 0; i < config.historyPerBorrower(); i++) {
+                LocalDate start = historyStart.plusDays(random.nextInt(365));
+                cart.add(RentalDTO.builder()
+                        .itemId(randomItem(random).getId())
+                        .startDate(start)
+                        .endDate(start.plusDays(random.nextInt(5)))
+                        .build());
+            }
+            String result = client.post("POST /rentals/batch", "/rentals/batch", borrower(b), cart);
+            if (result != null) {
+                rentals += cart.size();
+            }
+        }
+        log.info("Seeded {} rentals for {} borrowers", rentals, config.borrowers());
+    }
+
+    private void loadCatalog() {
+        String cursor = null;
+        do {
+            String json = client.get("GET /items", "/items?size=" + Cursors.MAX_SIZE
+                    + (cursor == null ? "" : "&cursor=" + cursor), null);
+            if (json == null) {
+                throw new IllegalStateException("Could not read the seeded catalog");
+            }
+            CursorPageDTO<ItemDTO> page = client.read(json, new TypeReference<>() {
+            });
+            catalog.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+    }
+
+    void browseItems(Random random) {
+        String cursor = random.nextInt(4) == 0 ? "" : "&cursor=" + Cursors.encode(randomItem(random).getId());
+        client.get("GET /items", "/items?size=20" + cursor, null);
+    }
+
+    void searchItems(Random random) {
+        String word = WORDS[random.nextInt(WORDS.length)].toLowerCase();
+        String query = random.nextBoolean() ? word.substring(0, 3) : word + " " + CITIES[random.nextInt(CITIES.length)];
+        client.get("GET /items/search", "/items/search?size=20&q=" + query.replace(" ", "+"), null);
+    }
+
+    void availableItems(Random random) {
+        LocalDate from = lifecycleStart.plusDays(random.nextInt(365));
+        client.get("GET /items/available", "/items/available?size=20&from=" + from + "&to=" + from.plusDays(3), null);
+    }
+
+    void myRentals(Random random) {
+        client.get("GET /rentals/my", "/rentals/my?size=20", borrower(random.nextInt(config.borrowers())));
+    }
+
+    void requestRentals(Random random) {
+        client.get("GET /rentals/request", "/rentals/request?size=20", owner(random.nextInt(config.owners())));
+    }
+
+    // create -> approve -> pay -> start (pickup) -> complete, stops at the first failed step
+    void rentalLifecycle(Random random) {
+        ItemDTO item = randomItem(random);
+        String borrower = borrower(random.nextInt(config.borrowers()));
+        LocalDate start = lifecycleStart.plusDays(random.nextInt(365));
+
+        String created = client.post("POST /rentals", "/rentals", borrower, RentalDTO.builder()
+                .itemId(item.getId())
+                .startDate(start)
+                .endDate(start.plusDays(random.nextInt(5)))
+                .build());
+        if (created == null) {
+            return;
+        }
+        RentalDTO rental = client.read(created, RentalDTO.class);
+        String id = String.valueOf(rental.getId());
+        if (client.post("POST /rentals/{id}/approve", "/rentals/" + id + "/approve", item.getOwnerId(), null) == null) {
+            return;
+        }
+        if (client.post("POST /payments/rental/{id}", "/payments/rental/" + id + "?amount=" + rental.getTotalPrice(),
+                borrower, null) == null) {
+            return;
+        }
+        if (client.post("POST /rentals/{id}/start", "/rentals/" + id + "/start", borrower, null) == null) {
+            return;
+        }
+        client.post("POST /rentals/{id}/complete", "/rentals/" + id + "/complete", item.getOwnerId(), null);
+    }
+
+    int catalogSize() {
+        return catalog.size();
+    }
+
+    private ItemDTO randomItem(Random random) {
+        return catalog.get(random.nextInt(catalog.size()));
+    }
+}
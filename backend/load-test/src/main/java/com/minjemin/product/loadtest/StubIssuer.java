@@ -0,0 +1,128 @@
+package com.minjemin.product.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+// Minimal OIDC issuer standing in for Keycloak: discovery document, JWKS and a token endpoint,
+// signing RS256 tokens with Keycloak's claim layout for any synthetic user.
+class StubIssuer implements AutoCloseable {
+
+    private static final String REALM = "/realms/minjemin";
+    private static final Duration TOKEN_TTL = Duration.ofHours(2);
+
+    private final RSAKey rsaKey;
+    private final HttpServer server;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    StubIssuer() throws IOException, JOSEException {
+        rsaKey = new RSAKeyGenerator(2048).keyID("load-test").generate();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "stub-issuer");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.createContext(REALM + "/.well-known/openid-configuration", exchange -> respond(exchange, discovery()));
+        server.createContext(REALM + "/protocol/openid-connect/certs",
+                exchange -> respond(exchange, new JWKSet(rsaKey.toPublicJWK()).toString()));
+        server.createContext(REALM + "/protocol/openid-connect/token", this::token);
+        server.start();
+    }
+
+    String issuerUri() {
+        return "http://localhost:" + server.getAddress().getPort() + REALM;
+    }
+
+    String jwkSetUri() {
+        return issuerUri() + "/protocol/openid-connect/certs";
+    }
+
+    // one token per user for the whole run, so the service sees a stable jti per user like a real session
+    String tokenFor(String userId) {
+        return tokens.computeIfAbsent(userId, this::mint);
+    }
+
+    private String mint(String userId) {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(issuerUri())
+                        .subject(userId)
+                        .jwtID(UUID.randomUUID().toString())
+                        .issueTime(new Date())
+                        .expirationTime(Date.from(Instant.now().plus(TOKEN_TTL)))
+                        .claim("preferred_username", userId)
+                        .claim("realm_access", Map.of("roles", List.of("offline_access", "default-roles-minjemin")))
+                        .claim("resource_access", Map.of("react-app", Map.of("roles", List.of("user"))))
+                        .build());
+        try {
+            jwt.sign(new RSASSASigner(rsaKey));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return jwt.serialize();
+    }
+
+    // POST username=<sub>, for driving the service from other tools
+    private void token(HttpExchange exchange) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        String username = form.get("username");
+        if (username == null || username.isBlank()) {
+            exchange.sendResponseHeaders(400, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, "{\"access_token\":\"" + tokenFor(username) + "\",\"token_type\":\"Bearer\",\"expires_in\":"
+                + TOKEN_TTL.toSeconds() + "}");
+    }
+
+    private String discovery() {
+        return "{\"issuer\":\"" + issuerUri() + "\","
+                + "\"jwks_uri\":\"" + jwkSetUri() + "\","
+                + "\"token_endpoint\":\"" + issuerUri() + "/protocol/openid-connect/token\","
+                + "\"subject_types_supported\":[\"public\"],"
+                + "\"response_types_supported\":[\"token\"],"
+                + "\"id_token_signing_alg_values_supported\":[\"RS256\"]}";
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
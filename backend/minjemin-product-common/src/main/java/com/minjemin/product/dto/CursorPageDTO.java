@@ -7,7 +7,7 @@ import java.util.List;
 
 @Data
 @Builder(toBuilder = true)
-public class ProductStatDTO {
-    private Integer totalProduct;
-    private List<ItemDTO> dataProducts;
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String nextCursor;
 }
@@ -0,0 +1,14 @@
+package com.minjemin.product.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class ProductStatDTO {
+    private Long totalProduct;
+    private Long totalStock;
+    private Long availableProduct;
+    private Long unavailableProduct;
+    private Double averagePricePerDay;
+}
@@ -4,13 +4,11 @@ import com.minjemin.product.model.RentalStatus;
 import lombok.Builder;
 import lombok.Data;
 
-import java.util.List;
 import java.util.Map;
 
 @Data
 @Builder(toBuilder = true)
 public class RentalStatDTO {
-    private Integer totalRental;
-    private List<RentalDTO> dataRentals;
+    private Long totalRental;
     private Map<RentalStatus, Long> statuses;
 }
@@ -0,0 +1,50 @@
+package com.minjemin.product.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Keycloak realm roles and react-app client roles as ROLE_ authorities, shared by both services
+public final class KeycloakAuthorities {
+
+    private static final String CLIENT = "react-app";
+
+    private KeycloakAuthorities() {
+    }
+
+    public static Collection<GrantedAuthority> extract(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = new ArrayList<>();
+
+        extractRolesFromClaim(jwt, "realm_access", authorities, null);
+        extractRolesFromClaim(jwt, "resource_access", authorities, CLIENT);
+
+        return authorities;
+    }
+
+    private static void extractRolesFromClaim(Jwt jwt, String claimName, Collection<GrantedAuthority> authorities, String resource) {
+        Map<String, Object> claim = jwt.getClaim(claimName);
+        if (claim != null && claim.containsKey("roles")) {
+            List<String> roles = (List<String>) claim.get("roles");
+            for (String role : roles) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+            }
+        }
+
+        if (resource != null) {
+            Map<String, Object> resourceAccess = jwt.getClaim(claimName);
+            if (resourceAccess != null && resourceAccess.containsKey(resource)) {
+                List<String> resourceRoles = (List<String>) ((Map<String, Object>) resourceAccess.get(resource)).get("roles");
+                if (resourceRoles != null) {
+                    for (String role : resourceRoles) {
+                        authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.minjemin.product.query;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class MinjeminProductQueryApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(MinjeminProductQueryApplication.class, args);
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.minjemin.product.query.controller;
+
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.query.service.ItemQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/items")
+@RequiredArgsConstructor
+public class ItemQueryController {
+
+    private final ItemQueryService itemQueryService;
+
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CursorPageDTO<ItemDTO>> getAllItems(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") int size) {
+        return itemQueryService.getAllItems(cursor, size);
+    }
+
+    // Accept: application/x-ndjson streams every item after the cursor, paced by the client
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemDTO> streamAllItems(@RequestParam(required = false) String cursor) {
+        return itemQueryService.streamAllItems(cursor);
+    }
+}
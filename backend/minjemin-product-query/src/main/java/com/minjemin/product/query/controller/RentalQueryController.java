@@ -0,0 +1,57 @@
+package com.minjemin.product.query.controller;
+
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.query.service.RentalQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/rentals")
+@RequiredArgsConstructor
+public class RentalQueryController {
+
+    private final RentalQueryService rentalQueryService;
+
+    @GetMapping(value = "/my", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CursorPageDTO<RentalDTO>> getMy(@AuthenticationPrincipal Jwt jwt,
+                                                @RequestParam(required = false) String name,
+                                                @RequestParam(required = false) String status,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size) {
+        return rentalQueryService.getMyRentals(jwt.getSubject(), name, status, cursor, size);
+    }
+
+    @GetMapping(value = "/my", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RentalDTO> streamMy(@AuthenticationPrincipal Jwt jwt,
+                                    @RequestParam(required = false) String name,
+                                    @RequestParam(required = false) String status,
+                                    @RequestParam(required = false) String cursor) {
+        return rentalQueryService.streamMyRentals(jwt.getSubject(), name, status, cursor);
+    }
+
+    @GetMapping(value = "/request", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CursorPageDTO<RentalDTO>> getRequestRentals(@AuthenticationPrincipal Jwt jwt,
+                                                            @RequestParam(required = false) String name,
+                                                            @RequestParam(required = false) String status,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        return rentalQueryService.getRequestRentals(jwt.getSubject(), name, status, cursor, size);
+    }
+
+    @GetMapping(value = "/request", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RentalDTO> streamRequestRentals(@AuthenticationPrincipal Jwt jwt,
+                                                @RequestParam(required = false) String name,
+                                                @RequestParam(required = false) String status,
+                                                @RequestParam(required = false) String cursor) {
+        return rentalQueryService.streamRequestRentals(jwt.getSubject(), name, status, cursor);
+    }
+}
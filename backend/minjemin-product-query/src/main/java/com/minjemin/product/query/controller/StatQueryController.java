@@ -0,0 +1,43 @@
+package com.minjemin.product.query.controller;
+
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.ProductStatDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.dto.RentalStatDTO;
+import com.minjemin.product.query.service.StatQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequestMapping("/stats")
+@RestController
+@RequiredArgsConstructor
+public class StatQueryController {
+
+    private final StatQueryService statQueryService;
+
+    @GetMapping("/products")
+    public Mono<ProductStatDTO> productStatistics() {
+        return statQueryService.totalProduct();
+    }
+
+    // whole table as a stream instead of Page, the paged JSON stays on minjemin-product-service
+    @GetMapping(value = "/products/data", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemDTO> productData() {
+        return statQueryService.streamProductData();
+    }
+
+    @GetMapping("/rentals")
+    public Mono<RentalStatDTO> rentalStatistics() {
+        return statQueryService.totalRental();
+    }
+
+    @GetMapping(value = "/rentals/data", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RentalDTO> rentalData() {
+        return statQueryService.streamRentalData();
+    }
+}
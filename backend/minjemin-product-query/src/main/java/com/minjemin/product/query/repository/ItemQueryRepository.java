@@ -0,0 +1,50 @@
+package com.minjemin.product.query.repository;
+
+import com.minjemin.product.dto.ItemDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Read-only access to items. Results are fetched fetch-size rows at a time as the subscriber asks for them,
+// so a slow client holds back the query instead of buffering the table in memory.
+@Repository
+public class ItemQueryRepository {
+
+    private static final String SELECT_ITEMS = "SELECT id, name, description, price_per_day, available, owner_id, stock "
+            + "FROM items WHERE id > :afterId ORDER BY id";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ItemQueryRepository(DatabaseClient databaseClient,
+                               @Value("${minjemin.query.fetch-size:200}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    // ascending by id, limit <= 0 streams everything after afterId
+    public Flux<ItemDTO> findAfter(long afterId, int limit) {
+        String sql = limit > 0 ? SELECT_ITEMS + " LIMIT :limit" : SELECT_ITEMS;
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("afterId", afterId);
+        if (limit > 0) {
+            spec = spec.bind("limit", limit);
+        }
+        return spec.map(ItemQueryRepository::toDto).all();
+    }
+
+    static ItemDTO toDto(Readable row) {
+        return ItemDTO.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .pricePerDay(row.get("price_per_day", Double.class))
+                .available(Boolean.TRUE.equals(row.get("available", Boolean.class)))
+                .ownerId(row.get("owner_id", String.class))
+                .stock(row.get("stock", Integer.class))
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.minjemin.product.query.repository;
+
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.model.RentalStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Same keyset queries as RentalSpecification in minjemin-product-service, ORDER BY created_at DESC, id DESC,
+// so they use idx_rentals_borrower_id_created_at_id and idx_rentals_owner_id_created_at_id.
+@Repository
+public class RentalQueryRepository {
+
+    private static final String SELECT_RENTALS = "SELECT r.id, r.item_id, i.name AS item_name, r.borrower_id, "
+            + "r.borrower_name, r.start_date, r.end_date, r.total_price, r.status, r.approved_by, r.paid, r.created_at "
+            + "FROM rentals r JOIN items i ON i.id = r.item_id";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public RentalQueryRepository(DatabaseClient databaseClient,
+                                 @Value("${minjemin.query.fetch-size:200}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<RentalRow> borrowerRentalsAfter(String borrowerId, String name, Set<RentalStatus> statuses,
+                                                LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return find("r.borrower_id = :party", borrowerId, name, statuses, afterCreatedAt, afterId, limit);
+    }
+
+    public Flux<RentalRow> ownerRentalsAfter(String ownerId, String name, Set<RentalStatus> statuses,
+                                             LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return find("r.owner_id = :party", ownerId, name, statuses, afterCreatedAt, afterId, limit);
+    }
+
+    // every rental ascending by id, for the stats export
+    public Flux<RentalDTO> findAll() {
+        return databaseClient.sql(SELECT_RENTALS + " ORDER BY r.id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(row -> toRow(row).rental())
+                .all();
+    }
+
+    // limit <= 0 streams every match
+    private Flux<RentalRow> find(String partyPredicate, String party, String name, Set<RentalStatus> statuses,
+                                 LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_RENTALS).append(" WHERE ").append(partyPredicate);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("party", party);
+
+        if (name != null && !name.isBlank()) {
+            sql.append(" AND lower(i.name) LIKE :name");
+            params.put("name", "%" + name.toLowerCase() + "%");
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND r.status IN (:statuses)");
+            params.put("statuses", statuses.stream().map(Enum::name).toList());
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            // (created_at, id) < (:createdAt, :id); the redundant <= keeps it an index range condition
+            sql.append(" AND r.created_at <= :afterCreatedAt AND (r.created_at < :afterCreatedAt"
+                    + " OR (r.created_at = :afterCreatedAt AND r.id < :afterId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        sql.append(" ORDER BY r.created_at DESC, r.id DESC");
+        if (limit > 0) {
+            sql.append(" LIMIT :limit");
+            params.put("limit", limit);
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(fetchSize));
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec.map(RentalQueryRepository::toRow).all();
+    }
+
+    private static RentalRow toRow(Readable row) {
+        RentalDTO rental = RentalDTO.builder()
+                .id(row.get("id", Long.class))
+                .itemId(row.get("item_id", Long.class))
+                .itemName(row.get("item_name", String.class))
+                .borrowerId(row.get("borrower_id", String.class))
+                .borrowerName(row.get("borrower_name", String.class))
+                .startDate(row.get("start_date", LocalDate.class))
+                .endDate(row.get("end_date", LocalDate.class))
+                .totalPrice(row.get("total_price", Double.class))
+                .status(row.get("status", String.class))
+                .approvedBy(row.get("approved_by", String.class))
+                .paid(row.get("paid", Boolean.class))
+                .build();
+        return new RentalRow(rental, row.get("created_at", LocalDateTime.class));
+    }
+}
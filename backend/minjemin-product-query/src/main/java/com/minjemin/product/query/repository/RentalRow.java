@@ -0,0 +1,9 @@
+package com.minjemin.product.query.repository;
+
+import com.minjemin.product.dto.RentalDTO;
+
+import java.time.LocalDateTime;
+
+// RentalDTO plus the created_at half of the keyset, which the DTO doesn't expose
+public record RentalRow(RentalDTO rental, LocalDateTime createdAt) {
+}
@@ -0,0 +1,49 @@
+package com.minjemin.product.query.repository;
+
+import com.minjemin.product.dto.ProductStatDTO;
+import com.minjemin.product.model.RentalStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class StatQueryRepository {
+
+    private static final String SUMMARIZE_ITEMS = "SELECT count(*) AS total_product, "
+            + "coalesce(sum(stock), 0) AS total_stock, "
+            + "coalesce(sum(CASE WHEN available THEN 1 ELSE 0 END), 0) AS available_product, "
+            + "avg(price_per_day) AS average_price_per_day "
+            + "FROM items";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<ProductStatDTO> summarizeItems() {
+        return databaseClient.sql(SUMMARIZE_ITEMS)
+                .map(row -> {
+                    long total = row.get("total_product", Number.class).longValue();
+                    long available = row.get("available_product", Number.class).longValue();
+                    Number average = row.get("average_price_per_day", Number.class);
+                    return ProductStatDTO.builder()
+                            .totalProduct(total)
+                            .totalStock(row.get("total_stock", Number.class).longValue())
+                            .availableProduct(available)
+                            .unavailableProduct(total - available)
+                            .averagePricePerDay(average == null ? null : average.doubleValue())
+                            .build();
+                })
+                .one();
+    }
+
+    // the counters kept by minjemin-product-service, striped over several slot rows per status
+    public Flux<Map.Entry<RentalStatus, Long>> rentalTotals() {
+        return databaseClient.sql("SELECT status, CAST(SUM(total) AS BIGINT) AS total FROM rental_stats GROUP BY status")
+                .map(row -> Map.entry(RentalStatus.valueOf(row.get("status", String.class)),
+                        row.get("total", Long.class)))
+                .all();
+    }
+}
@@ -0,0 +1,12 @@
+package com.minjemin.product.query.service;
+
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.ItemDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ItemQueryService {
+    Mono<CursorPageDTO<ItemDTO>> getAllItems(String cursor, int size);
+
+    Flux<ItemDTO> streamAllItems(String cursor);
+}
@@ -0,0 +1,44 @@
+package com.minjemin.product.query.service;
+
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.query.repository.ItemQueryRepository;
+import com.minjemin.product.service.Cursors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ItemQueryServiceImpl implements ItemQueryService {
+
+    private final ItemQueryRepository itemQueryRepository;
+
+    @Override
+    public Mono<CursorPageDTO<ItemDTO>> getAllItems(String cursor, int size) {
+        return Mono.defer(() -> {
+            int pageSize = Cursors.pageSize(size);
+            // fetch one extra row to know whether another page exists
+            return itemQueryRepository.findAfter(Cursors.decodeId(cursor), pageSize + 1)
+                    .collectList()
+                    .map(items -> toPage(items, pageSize));
+        });
+    }
+
+    @Override
+    public Flux<ItemDTO> streamAllItems(String cursor) {
+        return Flux.defer(() -> itemQueryRepository.findAfter(Cursors.decodeId(cursor), 0));
+    }
+
+    private static CursorPageDTO<ItemDTO> toPage(List<ItemDTO> items, int pageSize) {
+        boolean hasNext = items.size() > pageSize;
+        List<ItemDTO> page = hasNext ? items.subList(0, pageSize) : items;
+        return CursorPageDTO.<ItemDTO>builder()
+                .content(page)
+                .nextCursor(hasNext ? Cursors.encode(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.minjemin.product.query.service;
+
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.RentalDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface RentalQueryService {
+    Mono<CursorPageDTO<RentalDTO>> getMyRentals(String borrowerId, String name, String status, String cursor, int size);
+
+    Flux<RentalDTO> streamMyRentals(String borrowerId, String name, String status, String cursor);
+
+    Mono<CursorPageDTO<RentalDTO>> getRequestRentals(String ownerId, String name, String status, String cursor, int size);
+
+    Flux<RentalDTO> streamRequestRentals(String ownerId, String name, String status, String cursor);
+}
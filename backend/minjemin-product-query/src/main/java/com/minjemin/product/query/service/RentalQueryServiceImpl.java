@@ -0,0 +1,117 @@
+package com.minjemin.product.query.service;
+
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.exception.BadRequestException;
+import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.query.repository.RentalQueryRepository;
+import com.minjemin.product.query.repository.RentalRow;
+import com.minjemin.product.service.Cursors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class RentalQueryServiceImpl implements RentalQueryService {
+
+    private final RentalQueryRepository rentalQueryRepository;
+
+    @Override
+    public Mono<CursorPageDTO<RentalDTO>> getMyRentals(String borrowerId, String name, String status,
+                                                      String cursor, int size) {
+        return Mono.defer(() -> {
+            int pageSize = Cursors.pageSize(size);
+            RentalKey after = RentalKey.decode(cursor);
+            return toPage(rentalQueryRepository.borrowerRentalsAfter(borrowerId, name, parseStatuses(status),
+                    after.createdAt(), after.id(), pageSize + 1), pageSize);
+        });
+    }
+
+    @Override
+    public Flux<RentalDTO> streamMyRentals(String borrowerId, String name, String status, String cursor) {
+        return Flux.defer(() -> {
+            RentalKey after = RentalKey.decode(cursor);
+            return rentalQueryRepository.borrowerRentalsAfter(borrowerId, name, parseStatuses(status),
+                    after.createdAt(), after.id(), 0).map(RentalRow::rental);
+        });
+    }
+
+    @Override
+    public Mono<CursorPageDTO<RentalDTO>> getRequestRentals(String ownerId, String name, String status,
+                                                           String cursor, int size) {
+        return Mono.defer(() -> {
+            int pageSize = Cursors.pageSize(size);
+            RentalKey after = RentalKey.decode(cursor);
+            return toPage(rentalQueryRepository.ownerRentalsAfter(ownerId, name, parseStatuses(status),
+                    after.createdAt(), after.id(), pageSize + 1), pageSize);
+        });
+    }
+
+    @Override
+    public Flux<RentalDTO> streamRequestRentals(String ownerId, String name, String status, String cursor) {
+        return Flux.defer(() -> {
+            RentalKey after = RentalKey.decode(cursor);
+            return rentalQueryRepository.ownerRentalsAfter(ownerId, name, parseStatuses(status),
+                    after.createdAt(), after.id(), 0).map(RentalRow::rental);
+        });
+    }
+
+    // rows were fetched with pageSize + 1 to know whether another page exists
+    private static Mono<CursorPageDTO<RentalDTO>> toPage(Flux<RentalRow> rows, int pageSize) {
+        return rows.collectList().map(list -> {
+            boolean hasNext = list.size() > pageSize;
+            List<RentalRow> page = hasNext ? list.subList(0, pageSize) : list;
+            String nextCursor = null;
+            if (hasNext) {
+                RentalRow last = page.get(page.size() - 1);
+                nextCursor = Cursors.encode(last.createdAt(), last.rental().getId());
+            }
+            return CursorPageDTO.<RentalDTO>builder()
+                    .content(page.stream().map(RentalRow::rental).toList())
+                    .nextCursor(nextCursor)
+                    .build();
+        });
+    }
+
+    static Set<RentalStatus> parseStatuses(String status) {
+        if (status == null || status.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<RentalStatus> statuses = EnumSet.noneOf(RentalStatus.class);
+        for (String value : status.split(",")) {
+            if (value.isBlank()) {
+                continue;
+            }
+            try {
+                statuses.add(RentalStatus.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid status: " + value.trim());
+            }
+        }
+        return statuses;
+    }
+
+    private record RentalKey(LocalDateTime createdAt, Long id) {
+        static RentalKey decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return new RentalKey(null, null);
+            }
+            String[] keys = Cursors.decode(cursor, 2);
+            try {
+                return new RentalKey(LocalDateTime.parse(keys[0]), Long.parseLong(keys[1]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+    }
+}
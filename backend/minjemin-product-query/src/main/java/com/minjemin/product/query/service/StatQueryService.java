@@ -0,0 +1,18 @@
+package com.minjemin.product.query.service;
+
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.ProductStatDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.dto.RentalStatDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface StatQueryService {
+    Mono<ProductStatDTO> totalProduct();
+
+    Flux<ItemDTO> streamProductData();
+
+    Mono<RentalStatDTO> totalRental();
+
+    Flux<RentalDTO> streamRentalData();
+}
@@ -0,0 +1,61 @@
+package com.minjemin.product.query.service;
+
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.ProductStatDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.dto.RentalStatDTO;
+import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.query.repository.ItemQueryRepository;
+import com.minjemin.product.query.repository.RentalQueryRepository;
+import com.minjemin.product.query.repository.StatQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class StatQueryServiceImpl implements StatQueryService {
+
+    private final StatQueryRepository statQueryRepository;
+    private final ItemQueryRepository itemQueryRepository;
+    private final RentalQueryRepository rentalQueryRepository;
+
+    @Override
+    public Mono<ProductStatDTO> totalProduct() {
+        return statQueryRepository.summarizeItems();
+    }
+
+    @Override
+    public Flux<ItemDTO> streamProductData() {
+        return itemQueryRepository.findAfter(0L, 0);
+    }
+
+    @Override
+    public Mono<RentalStatDTO> totalRental() {
+        return statQueryRepository.rentalTotals()
+                .collectList()
+                .map(totals -> {
+                    Map<RentalStatus, Long> statusCount = new EnumMap<>(RentalStatus.class);
+                    long total = 0;
+                    for (Map.Entry<RentalStatus, Long> stat : totals) {
+                        if (stat.getValue() > 0) {
+                            statusCount.put(stat.getKey(), stat.getValue());
+                        }
+                        total += stat.getValue();
+                    }
+                    return RentalStatDTO.builder()
+                            .totalRental(total)
+                            .statuses(statusCount)
+                            .build();
+                });
+    }
+
+    @Override
+    public Flux<RentalDTO> streamRentalData() {
+        return rentalQueryRepository.findAll();
+    }
+}
@@ -0,0 +1,13 @@
+package com.minjemin.product.query;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class MinjeminProductQueryApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
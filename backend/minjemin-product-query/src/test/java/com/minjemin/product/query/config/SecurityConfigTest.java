@@ -0,0 +1,77 @@
+package com.minjemin.product.query.config;
+
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.query.controller.StatQueryController;
+import com.minjemin.product.query.service.StatQueryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+
+@WebFluxTest(StatQueryController.class)
+@Import(SecurityConfig.class)
+class SecurityConfigTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private SecurityConfig securityConfig;
+    @MockitoBean
+    private StatQueryService statQueryService;
+
+    @Test
+    void rentalData_RequiresAdminRole() {
+        when(statQueryService.streamRentalData())
+                .thenReturn(Flux.just(RentalDTO.builder().id(1L).borrowerId("alice").build()));
+
+        webTestClient.get().uri("/stats/rentals/data").exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.mutateWith(mockJwt().authorities(new SimpleGrantedAuthority("ROLE_user-role")))
+                .get().uri("/stats/rentals/data").exchange()
+                .expectStatus().isForbidden();
+        webTestClient.mutateWith(mockJwt().authorities(new SimpleGrantedAuthority("ROLE_admin-role")))
+                .get().uri("/stats/rentals/data").exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void actuator_OnlyHealthIsPublic() {
+        webTestClient.get().uri("/actuator/metrics").exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.mutateWith(mockJwt().authorities(new SimpleGrantedAuthority("ROLE_user-role")))
+                .get().uri("/actuator/metrics").exchange()
+                .expectStatus().isForbidden();
+        // the slice has no actuator endpoints, the request only has to get past security
+        webTestClient.get().uri("/actuator/health").exchange()
+                .expectStatus().value(status -> assertTrue(status != 401 && status != 403));
+    }
+
+    @Test
+    void keycloakRolesBecomeAuthorities() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("admin")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .claim("realm_access", Map.of("roles", List.of("admin-role")))
+                .build();
+
+        AbstractAuthenticationToken authentication = securityConfig.jwtAuthenticationConverter().convert(jwt).block();
+
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_admin-role")));
+    }
+}
@@ -0,0 +1,105 @@
+package com.minjemin.product.query.repository;
+
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.model.RentalStatus;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// the hand-written SQL against an in-memory H2 with the columns the queries read
+class RentalQueryRepositoryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    private DatabaseClient databaseClient;
+    private RentalQueryRepository rentalQueryRepository;
+    private ItemQueryRepository itemQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = DatabaseClient.create(ConnectionFactories.get("r2dbc:h2:mem:///query-test;DB_CLOSE_DELAY=-1"));
+        rentalQueryRepository = new RentalQueryRepository(databaseClient, 2);
+        itemQueryRepository = new ItemQueryRepository(databaseClient, 2);
+
+        execute("DROP TABLE IF EXISTS rentals");
+        execute("DROP TABLE IF EXISTS items");
+        execute("CREATE TABLE items (id BIGINT PRIMARY KEY, available BOOLEAN, description VARCHAR(255), "
+                + "name VARCHAR(255) NOT NULL, owner_id VARCHAR(255) NOT NULL, price_per_day DOUBLE PRECISION, stock INT NOT NULL)");
+        execute("CREATE TABLE rentals (id BIGINT PRIMARY KEY, approved_by VARCHAR(255), borrower_id VARCHAR(255) NOT NULL, "
+                + "borrower_name VARCHAR(255), created_at TIMESTAMP, end_date DATE, paid BOOLEAN, start_date DATE, "
+                + "status VARCHAR(255), total_price DOUBLE PRECISION, item_id BIGINT NOT NULL, owner_id VARCHAR(255) NOT NULL)");
+        execute("INSERT INTO items VALUES (1, TRUE, NULL, 'Camera', 'owner', 1000, 1), "
+                + "(2, FALSE, NULL, 'Tent', 'owner', 500, 0), (3, TRUE, NULL, 'Bike', 'other', 700, 2)");
+        // rentals 3 and 4 share a created_at, the id breaks the tie
+        insertRental(1, 1, "alice", "PENDING", T0);
+        insertRental(2, 2, "alice", "APPROVED", T0.plusHours(1));
+        insertRental(3, 1, "alice", "APPROVED", T0.plusHours(2));
+        insertRental(4, 3, "alice", "PENDING", T0.plusHours(2));
+        insertRental(5, 1, "bob", "PENDING", T0.plusHours(3));
+    }
+
+    @Test
+    void borrowerRentals_NewestFirstWithKeysetAndFilters() {
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(rentalQueryRepository.borrowerRentalsAfter(
+                "alice", null, Set.of(), null, null, 0).collectList().block()));
+
+        // page after (T0+2h, 4) continues with the tied row 3
+        assertEquals(List.of(3L, 2L), ids(rentalQueryRepository.borrowerRentalsAfter(
+                "alice", null, Set.of(), T0.plusHours(2), 4L, 2).collectList().block()));
+
+        assertEquals(List.of(3L), ids(rentalQueryRepository.borrowerRentalsAfter(
+                "alice", "CAM", Set.of(RentalStatus.APPROVED, RentalStatus.ONGOING), null, null, 0)
+                .collectList().block()));
+    }
+
+    @Test
+    void ownerRentals_ByRentalOwner() {
+        StepVerifier.create(rentalQueryRepository.ownerRentalsAfter("owner", null, Set.of(), null, null, 0))
+                .assertNext(row -> {
+                    assertEquals(5L, row.rental().getId());
+                    assertEquals("Camera", row.rental().getItemName());
+                    assertEquals(T0.plusHours(3), row.createdAt());
+                })
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void items_AscendingAfterId() {
+        StepVerifier.create(itemQueryRepository.findAfter(1L, 0).map(ItemDTO::getId))
+                .expectNext(2L, 3L)
+                .verifyComplete();
+        StepVerifier.create(itemQueryRepository.findAfter(0L, 1).map(ItemDTO::isAvailable))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    private void insertRental(long id, long itemId, String borrowerId, String status, LocalDateTime createdAt) {
+        databaseClient.sql("INSERT INTO rentals (id, borrower_id, created_at, status, item_id, owner_id) "
+                        + "VALUES (:id, :borrowerId, :createdAt, :status, :itemId, (SELECT owner_id FROM items WHERE id = :itemId))")
+                .bind("id", id)
+                .bind("borrowerId", borrowerId)
+                .bind("createdAt", createdAt)
+                .bind("status", status)
+                .bind("itemId", itemId)
+                .then()
+                .block();
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+
+    private static List<Long> ids(List<RentalRow> rows) {
+        return rows.stream().map(RentalRow::rental).map(RentalDTO::getId).toList();
+    }
+}
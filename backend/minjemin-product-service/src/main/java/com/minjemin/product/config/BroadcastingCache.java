@@ -0,0 +1,71 @@
+package com.minjemin.product.config;
+
+import com.minjemin.product.service.CacheInvalidationBus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+// Local cache whose evictions are also sent to the other nodes
+@RequiredArgsConstructor
+public class BroadcastingCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheInvalidationBus invalidationBus;
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        invalidationBus.publish(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = delegate.evictIfPresent(key);
+        invalidationBus.publish(getName(), key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        invalidationBus.publishAll(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = delegate.invalidate();
+        invalidationBus.publishAll(getName());
+        return present;
+    }
+}
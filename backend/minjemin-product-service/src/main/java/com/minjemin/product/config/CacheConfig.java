@@ -0,0 +1,55 @@
+package com.minjemin.product.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minjemin.product.service.CacheInvalidationBus;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ITEMS = "items";
+    public static final String RENTALS = "rentals";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${minjemin.cache.max-size:10000}") long maxSize,
+                                     @Value("${minjemin.cache.ttl:5m}") Duration ttl,
+                                     ObjectProvider<CacheInvalidationBus> invalidationBus) {
+        CacheInvalidationBus bus = invalidationBus.getIfAvailable();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                Cache local = super.adaptCaffeineCache(name, cache);
+                return bus == null ? local : new BroadcastingCache(local, bus);
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setCacheNames(List.of(ITEMS, RENTALS));
+        // evictions inside a transaction wait for the commit, so a concurrent read can't cache the old row
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // hit/miss/eviction meters for caches wrapped in BroadcastingCache
+    @Bean
+    @SuppressWarnings("unchecked")
+    public CacheMeterBinderProvider<BroadcastingCache> broadcastingCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache(), cache.getName(), tags);
+    }
+}
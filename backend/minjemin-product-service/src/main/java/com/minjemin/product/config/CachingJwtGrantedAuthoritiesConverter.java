@@ -0,0 +1,82 @@
+package com.minjemin.product.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+// Remembers the authorities of a token until the token expires, keyed by jti (or a hash of the raw token).
+// Only called after the signature and exp were validated, so a cached entry always belongs to a genuine token.
+public class CachingJwtGrantedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    // tokens without exp
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private final Converter<Jwt, Collection<GrantedAuthority>> delegate;
+    private final Cache<String, Entry> cache;
+
+    public CachingJwtGrantedAuthoritiesConverter(Converter<Jwt, Collection<GrantedAuthority>> delegate, long maxSize) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), entry.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public CachingJwtGrantedAuthoritiesConverter bindTo(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.authorities");
+        return this;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        return cache.get(key(jwt), key -> {
+            Instant expiresAt = jwt.getExpiresAt() != null ? jwt.getExpiresAt() : Instant.now().plus(DEFAULT_TTL);
+            return new Entry(List.copyOf(delegate.convert(jwt)), expiresAt);
+        }).authorities();
+    }
+
+    private static String key(Jwt jwt) {
+        if (jwt.getId() != null) {
+            return "jti:" + jwt.getId();
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwt.getTokenValue().getBytes(StandardCharsets.US_ASCII));
+            return "sha256:" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(Collection<GrantedAuthority> authorities, Instant expiresAt) {
+    }
+}
@@ -1,32 +1,54 @@
 package com.minjemin.product.config;
 
+import com.minjemin.product.security.KeycloakAuthorities;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 
+@Slf4j
 @Configuration
 public class SecurityConfig {
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/cars").hasAuthority("ROLE_admin-role")
+                        .requestMatchers("/export/**").hasAuthority("ROLE_admin-role")
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        // metrics and prometheus name endpoints, tables and users, scrape with an admin token
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_admin-role")
                         .anyRequest().permitAll() // Permit all requests
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)))
                 .csrf(csrf -> csrf.disable()) // Disable CSRF protection for POST requests
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()));
         //.formLogin(form -> form.disable()) // Disable login screen
@@ -49,44 +71,59 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public JwtAuthenticationConverter jwtAuthenticationConverter(
+            @Value("${minjemin.security.authorities-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry) {
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Collection<GrantedAuthority> authorities = new ArrayList<>();
+        // role claims are walked once per token, not once per request
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(
+                new CachingJwtGrantedAuthoritiesConverter(KeycloakAuthorities::extract, maxSize).bindTo(meterRegistry));
 
-            extractRolesFromClaim(jwt, "realm_access", authorities);
-            extractRolesFromClaim(jwt, "resource_access", authorities, "react-app");
+        return jwtAuthenticationConverter;
+    }
+
+    // JWKS from Keycloak, cached and refreshed in the background before it expires,
+    // an unknown kid (key rotation) still triggers a rate limited reload
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${minjemin.security.jwks.ttl:15m}") Duration ttl,
+            @Value("${minjemin.security.jwks.refresh-ahead:1m}") Duration refreshAhead) throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+                .cache(ttl.toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .retrying(true)
+                .build();
+    }
 
-            return authorities;
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // claims are checked by the Spring validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
         });
 
-        return jwtAuthenticationConverter;
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return jwtDecoder;
     }
 
-    private void extractRolesFromClaim(Jwt jwt, String claimName, Collection<GrantedAuthority> authorities) {
-        extractRolesFromClaim(jwt, claimName, authorities, null);
+    // fetch the keys at startup instead of on the first authenticated request
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> jwksPrewarm(JWKSource<SecurityContext> jwkSource) {
+        return event -> prewarm(jwkSource);
     }
 
-    private void extractRolesFromClaim(Jwt jwt, String claimName, Collection<GrantedAuthority> authorities, String resource) {
-        Map<String, Object> claim = jwt.getClaim(claimName);
-        if (claim != null && claim.containsKey("roles")) {
-            List<String> roles = (List<String>) claim.get("roles");
-            for (String role : roles) {
-                authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
-            }
-        }
-
-        if (resource != null) {
-            Map<String, Object> resourceAccess = jwt.getClaim(claimName);
-            if (resourceAccess != null && resourceAccess.containsKey(resource)) {
-                List<String> resourceRoles = (List<String>) ((Map<String, Object>) resourceAccess.get(resource)).get("roles");
-                if (resourceRoles != null) {
-                    for (String role : resourceRoles) {
-                        authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
-                    }
-                }
-            }
+    static int prewarm(JWKSource<SecurityContext> jwkSource) {
+        try {
+            List<JWK> keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            log.info("Prefetched {} JWKS keys", keys.size());
+            return keys.size();
+        } catch (KeySourceException e) {
+            log.warn("Could not prefetch JWKS keys, the first request will retry: {}", e.getMessage());
+            return 0;
         }
     }
-
 }
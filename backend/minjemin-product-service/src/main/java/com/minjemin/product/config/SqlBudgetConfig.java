@@ -0,0 +1,32 @@
+package com.minjemin.product.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "minjemin.sql.budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementRecording() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingListener.class.getName());
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public SqlBudgetFilter sqlBudgetFilter(@Value("${minjemin.sql.budget.statements:20}") int maxStatements,
+                                           @Value("${minjemin.sql.budget.time:500ms}") Duration maxTime,
+                                           @Value("${minjemin.sql.budget.repeat-threshold:5}") int repeatThreshold) {
+        return new SqlBudgetFilter(maxStatements, maxTime, repeatThreshold);
+    }
+}
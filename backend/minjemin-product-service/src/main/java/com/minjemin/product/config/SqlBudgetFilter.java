@@ -0,0 +1,48 @@
+package com.minjemin.product.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+// Records the SQL of each request and warns when it goes over the statement or time budget,
+// or prepares the same statement repeatedly (N+1)
+@Slf4j
+@RequiredArgsConstructor
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private final int maxStatements;
+    private final Duration maxTime;
+    private final int repeatThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementRecorder.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            report(request, SqlStatementRecorder.stop());
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementRecorder.Recording recording) {
+        Map<String, Integer> repeated = recording.repeated(repeatThreshold);
+        boolean overBudget = recording.statementCount() > maxStatements
+                || recording.executionTime().compareTo(maxTime) > 0;
+        if (!overBudget && repeated.isEmpty()) {
+            return;
+        }
+        log.warn("{} {} ran {} SQL statements in {} ms (budget {} statements, {} ms)",
+                request.getMethod(), request.getRequestURI(), recording.statementCount(),
+                recording.executionTime().toMillis(), maxStatements, maxTime.toMillis());
+        repeated.forEach((sql, times) -> log.warn("  repeated {}x: {}", times, sql));
+    }
+}
@@ -0,0 +1,17 @@
+package com.minjemin.product.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Sees every statement Hibernate prepares, parameters are still "?" so repeated loads compare equal
+public class SqlStatementInspector implements StatementInspector {
+
+    public SqlStatementInspector() {
+        SqlStatementRecorder.install();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementRecorder.prepared(sql);
+        return sql;
+    }
+}
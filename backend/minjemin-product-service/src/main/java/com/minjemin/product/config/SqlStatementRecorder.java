@@ -0,0 +1,82 @@
+package com.minjemin.product.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-thread record of the SQL Hibernate prepares and how long it spent executing it.
+// A recording covers one HTTP request (SqlBudgetFilter) or one test (SqlBudgetExtension), statements
+// outside a recording are not tracked. JdbcTemplate and COPY bypass Hibernate and are not counted.
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+    private static volatile boolean installed;
+
+    private SqlStatementRecorder() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Recording());
+    }
+
+    // the finished recording, empty if none was started on this thread
+    public static Recording stop() {
+        Recording recording = CURRENT.get();
+        CURRENT.remove();
+        return recording == null ? new Recording() : recording;
+    }
+
+    // false until Hibernate has picked up SqlStatementInspector
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    static void install() {
+        installed = true;
+    }
+
+    static void prepared(String sql) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.statements.merge(sql, 1, Integer::sum);
+            recording.count++;
+        }
+    }
+
+    static void executed(long nanos) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.nanos += nanos;
+        }
+    }
+
+    public static final class Recording {
+        // sql -> times prepared, in first-seen order
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int count;
+        private long nanos;
+
+        public int statementCount() {
+            return count;
+        }
+
+        public Duration executionTime() {
+            return Duration.ofNanos(nanos);
+        }
+
+        public Map<String, Integer> statements() {
+            return statements;
+        }
+
+        // identical statements prepared at least threshold times, the usual shape of an N+1
+        public Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            statements.forEach((sql, times) -> {
+                if (times >= threshold) {
+                    repeated.put(sql, times);
+                }
+            });
+            return repeated;
+        }
+    }
+}
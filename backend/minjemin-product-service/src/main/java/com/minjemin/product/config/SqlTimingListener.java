@@ -0,0 +1,29 @@
+package com.minjemin.product.config;
+
+import org.hibernate.SessionEventListener;
+
+// One instance per session (hibernate.session.events.auto), adds JDBC execution time to the current recording
+public class SqlTimingListener implements SessionEventListener {
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementRecorder.executed(System.nanoTime() - start);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementRecorder.executed(System.nanoTime() - start);
+    }
+}
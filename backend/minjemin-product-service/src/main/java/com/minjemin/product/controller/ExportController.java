@@ -0,0 +1,39 @@
+package com.minjemin.product.controller;
+
+import com.minjemin.product.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/items")
+    public ResponseEntity<StreamingResponseBody> exportItems() {
+        return ndjson(exportService::exportItems);
+    }
+
+    @GetMapping("/rentals")
+    public ResponseEntity<StreamingResponseBody> exportRentals() {
+        return ndjson(exportService::exportRentals);
+    }
+
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments() {
+        return ndjson(exportService::exportPayments);
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -1,13 +1,22 @@
 package com.minjemin.product.controller;
 
+import com.minjemin.product.dto.AvailabilityDTO;
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.ImportResultDTO;
 import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.service.ItemImportService;
 import com.minjemin.product.service.ItemService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,6 +25,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @PostMapping
     public ItemDTO create(@RequestBody ItemDTO dto, @AuthenticationPrincipal Jwt jwt) {
@@ -23,18 +33,47 @@ public class ItemController {
         return itemService.createItem(dto, userId);
     }
 
+    // bulk onboarding: CSV with a header line (name,description,pricePerDay,stock) or NDJSON
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ImportResultDTO importItems(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                       InputStream body,
+                                       @AuthenticationPrincipal Jwt jwt) {
+        String userId = jwt.getClaim("sub");
+        ItemImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? ItemImportService.Format.NDJSON
+                : ItemImportService.Format.CSV;
+        return itemImportService.importItems(body, format, userId);
+    }
+
     @GetMapping("/my")
-    public List<ItemDTO> myItems(@AuthenticationPrincipal Jwt jwt,
-                                 @RequestParam(required = false) String name,
-                                 @RequestParam(required = false) Double minPrice,
-                                 @RequestParam(required = false) Double maxPrice) {
+    public CursorPageDTO<ItemDTO> myItems(@AuthenticationPrincipal Jwt jwt,
+                                          @RequestParam(required = false) String name,
+                                          @RequestParam(required = false) Double minPrice,
+                                          @RequestParam(required = false) Double maxPrice,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "20") int size) {
         String userId = jwt.getClaim("sub");
-        return itemService.getMyItems(userId, name, minPrice, maxPrice);
+        return itemService.getMyItems(userId, name, minPrice, maxPrice, cursor, size);
     }
 
     @GetMapping("")
-    public List<ItemDTO> getAllItems() {
-        return itemService.getAllItems();
+    public CursorPageDTO<ItemDTO> getAllItems(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size) {
+        return itemService.getAllItems(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public List<ItemDTO> search(@RequestParam String q,
+                                @RequestParam(defaultValue = "20") int size) {
+        return itemService.searchItems(q, size);
+    }
+
+    @GetMapping("/available")
+    public CursorPageDTO<ItemDTO> getAvailableItems(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") int size) {
+        return itemService.getAvailableItems(from, to, cursor, size);
     }
 
     @GetMapping("/{id}")
@@ -42,6 +81,13 @@ public class ItemController {
         return itemService.getItemById(id);
     }
 
+    @GetMapping("/{id}/availability")
+    public AvailabilityDTO getAvailability(@PathVariable Long id,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return itemService.getAvailability(id, from, to);
+    }
+
     @PutMapping("/{id}")
     public ItemDTO updateItemById(@PathVariable Long id, @RequestBody ItemDTO dto) {
         return itemService.updateItemById(id, dto);
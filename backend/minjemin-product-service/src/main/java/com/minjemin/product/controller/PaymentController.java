@@ -1,11 +1,14 @@
 package com.minjemin.product.controller;
 
-import com.minjemin.product.model.Payment;
+import com.minjemin.product.dto.PaymentDTO;
+import com.minjemin.product.dto.PaymentIntentDTO;
 import com.minjemin.product.service.PaymentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/payments")
@@ -14,10 +17,36 @@ public class PaymentController {
     private final PaymentService paymentService;
 
     @PostMapping("/rental/{rentalId}")
-    public Payment pay(@PathVariable Long rentalId,
-                       @RequestParam Double amount,
-                       @AuthenticationPrincipal Jwt jwt) {
+    public PaymentDTO pay(@PathVariable Long rentalId,
+                          @RequestParam Double amount,
+                          // retries with the same key get the first response back instead of a second payment
+                          @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                          @AuthenticationPrincipal Jwt jwt) {
         String payerId = jwt.getClaim("sub");
-        return paymentService.createPayment(rentalId, payerId, amount);
+        return paymentService.createPayment(rentalId, payerId, amount, idempotencyKey);
+    }
+
+    // Asynchronous variant: answers 202 with the pending intent, the gateway is charged in the background.
+    // Poll the Location until status is SUCCEEDED or FAILED.
+    @PostMapping
+    public ResponseEntity<PaymentIntentDTO> submit(@RequestParam Long rentalId,
+                                                   @RequestParam Double amount,
+                                                   @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                                   @AuthenticationPrincipal Jwt jwt) {
+        String payerId = jwt.getClaim("sub");
+        PaymentIntentDTO intent = paymentService.submitPayment(rentalId, payerId, amount, idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                        .replaceQuery(null)
+                        .path("/{id}")
+                        .buildAndExpand(intent.getId())
+                        .toUri())
+                .body(intent);
+    }
+
+    @GetMapping("/{intentId}")
+    public PaymentIntentDTO status(@PathVariable Long intentId, @AuthenticationPrincipal Jwt jwt) {
+        String payerId = jwt.getClaim("sub");
+        return paymentService.getPaymentIntent(intentId, payerId);
     }
 }
@@ -1,5 +1,6 @@
 package com.minjemin.product.controller;
 
+import com.minjemin.product.dto.CursorPageDTO;
 import com.minjemin.product.dto.RentalDTO;
 import com.minjemin.product.service.RentalService;
 import lombok.RequiredArgsConstructor;
@@ -26,20 +27,22 @@ public class RentalController {
         return rentalService.createRental(dto, userId, username);
     }
 
-    @GetMapping("/my")
-    public List<RentalDTO> getMy(@AuthenticationPrincipal Jwt jwt,
-                                 @RequestParam(required = false) String name,
-                                 @RequestParam(required = false) String status) {
+    // cart checkout: every line is created or none is
+    @PostMapping("/batch")
+    public List<RentalDTO> createBatch(@RequestBody List<RentalDTO> dtos, @AuthenticationPrincipal Jwt jwt) {
         String userId = jwt.getClaim("sub");
-        return rentalService.getMyRentals(userId, name, status);
+        String username = jwt.getClaim("preferred_username");
+        return rentalService.createRentals(dtos, userId, username);
     }
 
-    @GetMapping("/my/page")
-    public Page<RentalDTO> getMyPage(@AuthenticationPrincipal Jwt jwt,
-                                     @RequestParam(required = false) String name,
-                                     @RequestParam(required = false) String status, Pageable pageable) {
+    @GetMapping("/my")
+    public CursorPageDTO<RentalDTO> getMy(@AuthenticationPrincipal Jwt jwt,
+                                          @RequestParam(required = false) String name,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "20") int size) {
         String userId = jwt.getClaim("sub");
-        return rentalService.getMyRentalsPage(userId, name, status, pageable);
+        return rentalService.getMyRentals(userId, name, status, cursor, size);
     }
 
     @GetMapping("/my/pagedb")
@@ -51,11 +54,13 @@ public class RentalController {
     }
 
     @GetMapping("/request")
-    public List<RentalDTO> getRequestRentals(@AuthenticationPrincipal Jwt jwt,
-                                 @RequestParam(required = false) String name,
-                                 @RequestParam(required = false) String status) {
+    public CursorPageDTO<RentalDTO> getRequestRentals(@AuthenticationPrincipal Jwt jwt,
+                                                      @RequestParam(required = false) String name,
+                                                      @RequestParam(required = false) String status,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int size) {
         String ownerId = jwt.getClaim("sub");
-        return rentalService.getRequestRentals(ownerId, name, status);
+        return rentalService.getRequestRentals(ownerId, name, status, cursor, size);
     }
 
     @PostMapping("/{id}/approve")
@@ -1,9 +1,13 @@
 package com.minjemin.product.controller;
 
+import com.minjemin.product.dto.ItemDTO;
 import com.minjemin.product.dto.ProductStatDTO;
+import com.minjemin.product.dto.RentalDTO;
 import com.minjemin.product.dto.RentalStatDTO;
 import com.minjemin.product.service.StatService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -22,9 +26,19 @@ public class StatController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/products/data")
+    public Page<ItemDTO> productData(Pageable pageable) {
+        return statService.getProductData(pageable);
+    }
+
     @GetMapping("/rentals")
     public ResponseEntity<RentalStatDTO> rentalStatistics() {
         RentalStatDTO response = statService.totalRental();
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/rentals/data")
+    public Page<RentalDTO> rentalData(Pageable pageable) {
+        return statService.getRentalData(pageable);
+    }
 }
@@ -0,0 +1,17 @@
+package com.minjemin.product.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder(toBuilder = true)
+public class AvailabilityDTO {
+    private Long itemId;
+    private LocalDate from;
+    private LocalDate to;
+    private Long units;
+    private Long booked;
+    private boolean available;
+}
@@ -0,0 +1,12 @@
+package com.minjemin.product.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class ImportErrorDTO {
+    // 1-based data row, the CSV header is not counted
+    private long row;
+    private String message;
+}
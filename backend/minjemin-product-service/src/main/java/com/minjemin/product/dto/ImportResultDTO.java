@@ -0,0 +1,15 @@
+package com.minjemin.product.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+public class ImportResultDTO {
+    private long imported;
+    private long failed;
+    // first rows that failed validation, capped
+    private List<ImportErrorDTO> errors;
+}
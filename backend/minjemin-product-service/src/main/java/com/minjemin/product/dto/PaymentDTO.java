@@ -12,4 +12,5 @@ public class PaymentDTO {
     private Double amount;
     private LocalDateTime paidAt;
     private Long rentalId;
+    private String paymentRef;
 }
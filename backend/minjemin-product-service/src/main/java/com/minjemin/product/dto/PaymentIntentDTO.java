@@ -0,0 +1,20 @@
+package com.minjemin.product.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+public class PaymentIntentDTO {
+    private Long id;
+    private Long rentalId;
+    private Double amount;
+    private String status;
+    private Long paymentId;
+    private String paymentRef;
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
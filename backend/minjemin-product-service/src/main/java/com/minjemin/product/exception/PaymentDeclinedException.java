@@ -0,0 +1,6 @@
+package com.minjemin.product.exception;
+
+// final refusal from the payment gateway, the intent fails instead of being retried
+public class PaymentDeclinedException extends RuntimeException {
+    public PaymentDeclinedException(String msg) { super(msg); }
+}
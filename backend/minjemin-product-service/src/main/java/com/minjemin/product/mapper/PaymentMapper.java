@@ -0,0 +1,12 @@
+package com.minjemin.product.mapper;
+
+import com.minjemin.product.dto.PaymentDTO;
+import com.minjemin.product.model.Payment;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface PaymentMapper {
+    @Mapping(source = "rental.id", target = "rentalId")
+    PaymentDTO toDto(Payment payment);
+}
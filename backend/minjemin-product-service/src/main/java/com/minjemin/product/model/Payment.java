@@ -16,11 +16,14 @@ import java.time.LocalDateTime;
 @Builder
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // payments are inserted by native statements, one nextval per row, so the sequence steps by one
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 1)
     private Long id;
 
     private Double amount;
 
+    @Builder.Default
     private LocalDateTime paidAt = LocalDateTime.now();
 
     @OneToOne
@@ -0,0 +1,7 @@
+package com.minjemin.product.model;
+
+public enum PaymentIntentStatus {
+    PENDING,
+    SUCCEEDED,
+    FAILED
+}
@@ -19,13 +19,19 @@ import java.time.LocalDateTime;
 public class Rental {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence instead of IDENTITY so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rentals_seq")
+    @SequenceGenerator(name = "rentals_seq", sequenceName = "rentals_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
+    // the item owner's id, copied on insert so the owner inbox pages on idx_rentals_owner_id_created_at_id
+    @Column(nullable = false)
+    private String ownerId;
+
     @Column(nullable = false)
     private String borrowerId;
     private String borrowerName;
@@ -37,10 +43,23 @@ public class Rental {
     @Enumerated(EnumType.STRING)
     private RentalStatus status;
 
+    @Builder.Default
+    @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     private String approvedBy;
 
     private Boolean paid = false;
 
+    // guards concurrent transitions of the same rental (e.g. double approve)
+    @Version
+    private Long version;
+
+    @PrePersist
+    void copyOwner() {
+        if (ownerId == null && item != null) {
+            ownerId = item.getOwnerId();
+        }
+    }
+
 }
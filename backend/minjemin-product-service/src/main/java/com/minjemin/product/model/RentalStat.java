@@ -0,0 +1,41 @@
+package com.minjemin.product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// one counter slot of a status, the status total is the sum of its slots
+@Entity
+@Table(name = "rental_stats")
+@IdClass(RentalStat.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RentalStat {
+
+    public static final int SLOTS = 16;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private RentalStatus status;
+
+    @Id
+    private Integer slot;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long total = 0L;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private RentalStatus status;
+        private Integer slot;
+    }
+}
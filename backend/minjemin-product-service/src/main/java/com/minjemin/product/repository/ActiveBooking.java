@@ -0,0 +1,12 @@
+package com.minjemin.product.repository;
+
+import com.minjemin.product.model.RentalStatus;
+
+import java.time.LocalDate;
+
+public interface ActiveBooking {
+    Long getItemId();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+    RentalStatus getStatus();
+}
@@ -0,0 +1,11 @@
+package com.minjemin.product.repository;
+
+// outbox row leased by PaymentRepository.claimOutbox, with what the gateway needs from its intent
+public interface ClaimedPayment {
+    Long getOutboxId();
+    Integer getAttempts();
+    Long getIntentId();
+    Long getRentalId();
+    String getPayerId();
+    Double getAmount();
+}
@@ -0,0 +1,8 @@
+package com.minjemin.product.repository;
+
+public interface ItemAvailability {
+    // stock on the shelf plus units out with ONGOING rentals
+    Long getUnits();
+    // most APPROVED/ONGOING rentals on any single day of the requested dates
+    Long getBooked();
+}
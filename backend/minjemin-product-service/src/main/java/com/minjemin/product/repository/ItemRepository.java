@@ -1,10 +1,48 @@
 package com.minjemin.product.repository;
 
 import com.minjemin.product.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwnerId(String ownerId);
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item> {
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("select count(i) as totalProduct, " +
+            "coalesce(sum(i.stock), 0) as totalStock, " +
+            "coalesce(sum(case when i.available = true then 1 else 0 end), 0) as availableProduct, " +
+            "avg(i.pricePerDay) as averagePricePerDay " +
+            "from Item i")
+    ItemStatSummary summarize();
+
+    // single conditional UPDATE, returns 0 when the item is out of stock
+    @Modifying
+    @Query("update Item i set i.stock = i.stock - 1, " +
+            "i.available = case when i.stock > 1 then true else false end " +
+            "where i.id = :id and i.stock > 0")
+    int reserveStock(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Item i set i.stock = i.stock + 1, i.available = true where i.id = :id")
+    int releaseStock(@Param("id") Long id);
+
+    @Query("select i.stock from Item i where i.id = :id")
+    Integer findStockById(@Param("id") Long id);
+
+    // row lock that serializes approvals of one item, so their overlap counts can't race each other
+    @Query(value = "select id from items where id = :id for update", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select i from Item i order by i.id")
+    Stream<Item> streamAll();
 }
@@ -0,0 +1,8 @@
+package com.minjemin.product.repository;
+
+public interface ItemStatSummary {
+    Long getTotalProduct();
+    Long getTotalStock();
+    Long getAvailableProduct();
+    Double getAveragePricePerDay();
+}
@@ -0,0 +1,16 @@
+package com.minjemin.product.repository;
+
+import java.time.LocalDateTime;
+
+// payment_intents columns plus the ref of the settled payment
+public interface PaymentIntentRow {
+    Long getId();
+    Long getRentalId();
+    Double getAmount();
+    String getStatus();
+    Long getPaymentId();
+    String getPaymentRef();
+    String getFailureReason();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -1,8 +1,165 @@
 package com.minjemin.product.repository;
 
 import com.minjemin.product.model.Payment;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Payment p join fetch p.rental r join fetch r.item order by p.id")
+    Stream<Payment> streamAll();
+
+    // Marks the rental paid and inserts its payment in one statement. No row when the rental is missing,
+    // belongs to another borrower, is already paid or has a pending intent that PaymentOutboxWorker is about to
+    // charge; a concurrent payer waits on the rental row lock and then finds it paid, so the payments.rental_id
+    // constraint is never hit.
+    @Transactional
+    @Query(value = "with paid as (update rentals set paid = true, version = version + 1 " +
+            "where id = :rentalId and borrower_id = :payerId and paid is not true " +
+            "and not exists (select 1 from payment_intents where rental_id = :rentalId and status = 'PENDING') " +
+            "returning id), " +
+            "payment as (insert into payments (amount, paid_at, rental_id, payment_ref) " +
+            "select :amount, localtimestamp, id, :paymentRef from paid returning *) " +
+            "select id, amount, paid_at as paidAt, rental_id as rentalId, payment_ref as paymentRef from payment",
+            nativeQuery = true)
+    PaymentRow payRental(@Param("rentalId") Long rentalId,
+                         @Param("payerId") String payerId,
+                         @Param("amount") Double amount,
+                         @Param("paymentRef") String paymentRef);
+
+    // payRental that also records the Idempotency-Key in the same statement
+    @Transactional
+    @Query(value = "with paid as (update rentals set paid = true, version = version + 1 " +
+            "where id = :rentalId and borrower_id = :payerId and paid is not true " +
+            "and not exists (select 1 from payment_intents where rental_id = :rentalId and status = 'PENDING') " +
+            "returning id), " +
+            "payment as (insert into payments (amount, paid_at, rental_id, payment_ref) " +
+            "select :amount, localtimestamp, id, :paymentRef from paid returning *), " +
+            "idempotency as (insert into payment_idempotency_keys (payer_id, idempotency_key, rental_id, payment_id) " +
+            "select :payerId, :idempotencyKey, rental_id, id from payment on conflict do nothing) " +
+            "select id, amount, paid_at as paidAt, rental_id as rentalId, payment_ref as paymentRef from payment",
+            nativeQuery = true)
+    PaymentRow payRental(@Param("rentalId") Long rentalId,
+                         @Param("payerId") String payerId,
+                         @Param("amount") Double amount,
+                         @Param("paymentRef") String paymentRef,
+                         @Param("idempotencyKey") String idempotencyKey);
+
+    @Query(value = "select p.id, p.amount, p.paid_at as paidAt, p.rental_id as rentalId, p.payment_ref as paymentRef " +
+            "from payment_idempotency_keys k join payments p on p.id = k.payment_id " +
+            "where k.payer_id = :payerId and k.idempotency_key = :idempotencyKey", nativeQuery = true)
+    PaymentRow findByIdempotencyKey(@Param("payerId") String payerId,
+                                    @Param("idempotencyKey") String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from payment_idempotency_keys where created_at < :before", nativeQuery = true)
+    int deleteIdempotencyKeysBefore(@Param("before") LocalDateTime before);
+
+    String INTENT_COLUMNS = "i.id, i.rental_id as rentalId, i.amount, i.status, i.payment_id as paymentId, " +
+            "p.payment_ref as paymentRef, i.failure_reason as failureReason, i.created_at as createdAt, " +
+            "i.updated_at as updatedAt from payment_intents i left join payments p on p.id = i.payment_id ";
+
+    // Records a PENDING intent and its outbox row in one statement. No row when the rental is missing,
+    // belongs to another borrower or is already paid, or when the rental already has a pending intent
+    // or the payer already used the Idempotency-Key.
+    @Transactional
+    @Query(value = "with intent as (insert into payment_intents (rental_id, payer_id, amount, status, idempotency_key) " +
+            "select id, borrower_id, :amount, 'PENDING', cast(:idempotencyKey as varchar) from rentals " +
+            "where id = :rentalId and borrower_id = :payerId and paid is not true on conflict do nothing returning *), " +
+            "outbox as (insert into payment_outbox (intent_id) select id from intent) " +
+            "select i.id, i.rental_id as rentalId, i.amount, i.status, i.payment_id as paymentId, " +
+            "cast(null as varchar) as paymentRef, i.failure_reason as failureReason, i.created_at as createdAt, " +
+            "i.updated_at as updatedAt from intent i",
+            nativeQuery = true)
+    PaymentIntentRow submitIntent(@Param("rentalId") Long rentalId,
+                                  @Param("payerId") String payerId,
+                                  @Param("amount") Double amount,
+                                  @Param("idempotencyKey") String idempotencyKey);
+
+    @Query(value = "select " + INTENT_COLUMNS + "where i.id = :intentId and i.payer_id = :payerId", nativeQuery = true)
+    PaymentIntentRow findIntent(@Param("intentId") Long intentId, @Param("payerId") String payerId);
+
+    @Query(value = "select " + INTENT_COLUMNS + "where i.payer_id = :payerId and i.idempotency_key = :idempotencyKey",
+            nativeQuery = true)
+    PaymentIntentRow findIntentByIdempotencyKey(@Param("payerId") String payerId,
+                                                @Param("idempotencyKey") String idempotencyKey);
+
+    @Query(value = "select " + INTENT_COLUMNS + "where i.rental_id = :rentalId and i.payer_id = :payerId " +
+            "and i.status = 'PENDING'", nativeQuery = true)
+    PaymentIntentRow findPendingIntent(@Param("rentalId") Long rentalId, @Param("payerId") String payerId);
+
+    // Leases up to batchSize due outbox rows to the caller. SKIP LOCKED lets workers on every node claim
+    // disjoint batches without waiting on each other; the lease is over once the row is settled or retried.
+    @Transactional
+    @Query(value = "with due as (select id from payment_outbox where available_at <= localtimestamp " +
+            "order by available_at, id limit :batchSize for update skip locked), " +
+            "claimed as (update payment_outbox o set attempts = o.attempts + 1, " +
+            "available_at = localtimestamp + make_interval(secs => :leaseSeconds) " +
+            "from due where o.id = due.id returning o.id, o.attempts, o.intent_id) " +
+            "select c.id as outboxId, c.attempts, i.id as intentId, i.rental_id as rentalId, " +
+            "i.payer_id as payerId, i.amount from claimed c join payment_intents i on i.id = c.intent_id " +
+            "order by c.id",
+            nativeQuery = true)
+    List<ClaimedPayment> claimOutbox(@Param("batchSize") int batchSize, @Param("leaseSeconds") long leaseSeconds);
+
+    // Settles a charged intent: marks the rental paid, inserts the payment and drops the outbox row in one statement.
+    // Returns the new status, FAILED if the rental was paid some other way meanwhile, or no row when another
+    // worker already settled the intent (its lease ran out mid-call), which leaves that worker's result in place.
+    @Transactional
+    @Query(value = "with paid as (update rentals r set paid = true, version = r.version + 1 from payment_intents i " +
+            "where i.id = :intentId and i.status = 'PENDING' and r.id = i.rental_id and r.borrower_id = i.payer_id " +
+            "and r.paid is not true returning r.id, i.amount), " +
+            "payment as (insert into payments (amount, paid_at, rental_id, payment_ref) " +
+            "select amount, localtimestamp, id, :paymentRef from paid returning id), " +
+            "settled as (update payment_intents set " +
+            "status = case when exists (select 1 from payment) then 'SUCCEEDED' else 'FAILED' end, " +
+            "payment_id = (select id from payment), " +
+            "failure_reason = case when exists (select 1 from payment) then null else 'Rental already paid' end, " +
+            "updated_at = localtimestamp where id = :intentId and status = 'PENDING' returning status), " +
+            "done as (delete from payment_outbox where id = :outboxId) " +
+            "select status from settled",
+            nativeQuery = true)
+    String completeIntent(@Param("intentId") Long intentId,
+                          @Param("outboxId") Long outboxId,
+                          @Param("paymentRef") String paymentRef);
+
+    // Fails a claimed intent before its charge when the rental was paid some other way, which payRental only
+    // prevents for intents it can already see. No row when the rental is unpaid or the intent is settled.
+    @Transactional
+    @Query(value = "with settled as (update payment_intents i set status = 'FAILED', " +
+            "failure_reason = 'Rental already paid', updated_at = localtimestamp from rentals r " +
+            "where i.id = :intentId and i.status = 'PENDING' and r.id = i.rental_id and r.paid is true " +
+            "returning i.status), " +
+            "done as (delete from payment_outbox where id = :outboxId and exists (select 1 from settled)) " +
+            "select status from settled",
+            nativeQuery = true)
+    String failPaidIntent(@Param("intentId") Long intentId, @Param("outboxId") Long outboxId);
+
+    @Transactional
+    @Query(value = "with settled as (update payment_intents set status = 'FAILED', failure_reason = :reason, " +
+            "updated_at = localtimestamp where id = :intentId and status = 'PENDING' returning status), " +
+            "done as (delete from payment_outbox where id = :outboxId) " +
+            "select status from settled",
+            nativeQuery = true)
+    String failIntent(@Param("intentId") Long intentId,
+                      @Param("outboxId") Long outboxId,
+                      @Param("reason") String reason);
 
+    // gives the row back to the queue after a transient gateway error
+    @Transactional
+    @Modifying
+    @Query(value = "update payment_outbox set available_at = localtimestamp + make_interval(secs => :delaySeconds) " +
+            "where id = :outboxId", nativeQuery = true)
+    int retryOutbox(@Param("outboxId") Long outboxId, @Param("delaySeconds") long delaySeconds);
 }
@@ -0,0 +1,12 @@
+package com.minjemin.product.repository;
+
+import java.time.LocalDateTime;
+
+// payments columns only, read back without loading the rental
+public interface PaymentRow {
+    Long getId();
+    Double getAmount();
+    LocalDateTime getPaidAt();
+    Long getRentalId();
+    String getPaymentRef();
+}
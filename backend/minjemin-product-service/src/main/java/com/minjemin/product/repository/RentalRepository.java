@@ -2,21 +2,75 @@ package com.minjemin.product.repository;
 
 import com.minjemin.product.model.Rental;
 import com.minjemin.product.model.RentalStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RentalRepository extends JpaRepository<Rental, Long>, JpaSpecificationExecutor<Rental> {
-    List<Rental> findByBorrowerId(String borrowerId);
-    List<Rental> findByItem_OwnerId(String ownerId);
-    List<Rental> findByBorrowerIdAndItem_NameContainingIgnoreCaseAndStatus(
-            String borrowerId, String name, RentalStatus status);
-    List<Rental> findByItem_IdAndStatusNotIn(Long itemId, List<RentalStatus> excludedStatuses);
+    boolean existsByItem_IdAndStatusIn(Long itemId, Collection<RentalStatus> statuses);
     void deleteByItem_Id(Long itemId);
-    Page<Rental> findByBorrowerId(String borrowerId, Pageable pageable);
-    Page<Rental> findByBorrowerIdAndItemNameContainingIgnoreCaseAndStatus(
-            String borrowerId, String name, String status, Pageable pageable);
+
+    // list paths load the item in the same select, RentalMapper reads item.id / item.name
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Page<Rental> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Page<Rental> findAll(Specification<Rental> spec, Pageable pageable);
+
+    @Query("select r.status as status, count(r) as total from Rental r where r.item.id = :itemId group by r.status")
+    List<RentalStatusCount> countByItemIdGroupByStatus(@Param("itemId") Long itemId);
+
+    // units are the stock on the shelf plus the units out with ONGOING rentals, stock is only taken at pickup.
+    // booked is the busiest day of the range, the same per-day rule as ItemAvailabilityIndex: rentals on days 1-2
+    // and 5-6 never hold more than one unit at once. The overlap probe uses idx_rentals_active_item_id_period
+    // (GiST on item_id, daterange), only the overlapping rentals are spread over the days.
+    @Query(value = "select i.stock + (select count(*) from rentals a " +
+            "where a.item_id = i.id and a.status = 'ONGOING') as units, " +
+            "(select coalesce(max(per_day.booked), 0) from (select count(*) as booked from rentals o " +
+            "cross join generate_series(cast(:from as date), cast(:to as date), interval '1 day') d(day) " +
+            "where o.item_id = i.id and o.status in ('APPROVED', 'ONGOING') " +
+            "and daterange(o.start_date, o.end_date, '[]') && daterange(cast(:from as date), cast(:to as date), '[]') " +
+            "and cast(d.day as date) between o.start_date and o.end_date group by d.day) per_day) as booked " +
+            "from items i where i.id = :itemId", nativeQuery = true)
+    ItemAvailability findAvailability(@Param("itemId") Long itemId,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    @Query("select r.id from Rental r where r.item.id = :itemId")
+    List<Long> findIdsByItemId(@Param("itemId") Long itemId);
+
+    // every APPROVED/ONGOING rental, used to rebuild the in-memory availability index
+    @Query("select r.item.id as itemId, r.startDate as startDate, r.endDate as endDate, r.status as status " +
+            "from Rental r where r.status in (com.minjemin.product.model.RentalStatus.APPROVED, " +
+            "com.minjemin.product.model.RentalStatus.ONGOING)")
+    List<ActiveBooking> findActiveBookings();
+
+    @Query("select r.item.id as itemId, r.startDate as startDate, r.endDate as endDate, r.status as status " +
+            "from Rental r where r.item.id = :itemId and r.status in (com.minjemin.product.model.RentalStatus.APPROVED, " +
+            "com.minjemin.product.model.RentalStatus.ONGOING)")
+    List<ActiveBooking> findActiveBookingsByItemId(@Param("itemId") Long itemId);
+
+    @Query("select r.item.id as itemId, r.startDate as startDate, r.endDate as endDate, r.status as status " +
+            "from Rental r where r.item.id in :itemIds and r.status in (com.minjemin.product.model.RentalStatus.APPROVED, " +
+            "com.minjemin.product.model.RentalStatus.ONGOING)")
+    List<ActiveBooking> findActiveBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select r from Rental r join fetch r.item order by r.id")
+    Stream<Rental> streamAll();
 }
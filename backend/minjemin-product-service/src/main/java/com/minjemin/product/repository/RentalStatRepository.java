@@ -0,0 +1,19 @@
+package com.minjemin.product.repository;
+
+import com.minjemin.product.model.RentalStat;
+import com.minjemin.product.model.RentalStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RentalStatRepository extends JpaRepository<RentalStat, RentalStat.Key> {
+    @Modifying
+    @Query("update RentalStat s set s.total = s.total + :delta where s.status = :status and s.slot = :slot")
+    int increment(@Param("status") RentalStatus status, @Param("slot") int slot, @Param("delta") long delta);
+
+    @Query("select s.status as status, sum(s.total) as total from RentalStat s group by s.status")
+    List<RentalStatusCount> sumByStatus();
+}
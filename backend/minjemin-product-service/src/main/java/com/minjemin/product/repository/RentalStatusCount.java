@@ -0,0 +1,8 @@
+package com.minjemin.product.repository;
+
+import com.minjemin.product.model.RentalStatus;
+
+public interface RentalStatusCount {
+    RentalStatus getStatus();
+    Long getTotal();
+}
@@ -0,0 +1,243 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.config.CacheConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Cross-node cache invalidation over Postgres LISTEN/NOTIFY.
+// Local evictions are collected and flushed every flush-interval, so a burst costs one NOTIFY per cache
+// (split at the 8000 byte payload limit) and a bulk change past max-keys collapses into "evict all".
+// A dedicated connection outside the pool LISTENs and republishes other nodes' messages as CacheInvalidationEvents.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "minjemin.cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "minjemin_cache";
+    static final String ALL = "*";
+    private static final int MAX_PAYLOAD = 7900;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration flushInterval;
+    private final int maxKeys;
+
+    // cache name -> evicted keys, a key of ALL means the whole cache
+    private Map<String, Set<String>> pending = new LinkedHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+    private Thread listener;
+
+    public CacheInvalidationBus(DataSourceProperties dataSourceProperties,
+                                JdbcTemplate jdbcTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${minjemin.cache.invalidation.flush-interval:50ms}") Duration flushInterval,
+                                @Value("${minjemin.cache.invalidation.max-keys:500}") int maxKeys) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.flushInterval = flushInterval;
+        this.maxKeys = maxKeys;
+    }
+
+    public synchronized void publish(String cacheName, Object key) {
+        Set<String> keys = pending.computeIfAbsent(cacheName, name -> new HashSet<>());
+        if (keys.contains(ALL)) {
+            return;
+        }
+        keys.add(String.valueOf(key));
+        if (keys.size() > maxKeys) {
+            keys.clear();
+            keys.add(ALL);
+        }
+    }
+
+    public synchronized void publishAll(String cacheName) {
+        Set<String> keys = pending.computeIfAbsent(cacheName, name -> new HashSet<>());
+        keys.clear();
+        keys.add(ALL);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.SECONDS);
+        flush();
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    void flush() {
+        Map<String, Set<String>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        try {
+            for (String payload : encode(nodeId, batch)) {
+                jdbcTemplate.queryForList("select pg_notify(?, ?)", CHANNEL, payload);
+            }
+        } catch (RuntimeException e) {
+            // other nodes fall back to the cache ttl for these keys
+            log.warn("Could not publish cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    // messages sent while we were disconnected are lost
+                    log.info("Cache invalidation listener reconnected, dropping local caches");
+                    dispatch(Map.of(CacheConfig.ITEMS, Set.of(ALL),
+                            CacheConfig.RENTALS, Set.of(ALL)));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        Map<String, Set<String>> message = decode(nodeId, notification.getParameter());
+                        if (message != null) {
+                            dispatch(message);
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener failed, retrying in {} ms: {}", RECONNECT_DELAY_MS, e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(Map<String, Set<String>> message) {
+        message.forEach((cacheName, keys) -> {
+            try {
+                Set<Long> ids = null;
+                if (!keys.contains(ALL)) {
+                    ids = new HashSet<>();
+                    for (String key : keys) {
+                        ids.add(Long.parseLong(key));
+                    }
+                }
+                eventPublisher.publishEvent(new CacheInvalidationEvent(cacheName, ids));
+            } catch (RuntimeException e) {
+                log.warn("Could not apply cache invalidation for {}: {}", cacheName, e.getMessage());
+            }
+        });
+    }
+
+    // nodeId|cache:key,key;cache:*   split so every payload stays under MAX_PAYLOAD
+    static List<String> encode(String nodeId, Map<String, Set<String>> batch) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(nodeId).append('|');
+        int empty = payload.length();
+        for (Map.Entry<String, Set<String>> entry : batch.entrySet()) {
+            String prefix = entry.getKey() + ':';
+            boolean open = false;
+            for (String key : entry.getValue()) {
+                int needed = (open ? 1 : (payload.length() > empty ? 1 : 0) + prefix.length()) + key.length();
+                if (payload.length() + needed > MAX_PAYLOAD) {
+                    payloads.add(payload.toString());
+                    payload.setLength(empty);
+                    open = false;
+                }
+                if (open) {
+                    payload.append(',');
+                } else {
+                    if (payload.length() > empty) {
+                        payload.append(';');
+                    }
+                    payload.append(prefix);
+                    open = true;
+                }
+                payload.append(key);
+            }
+        }
+        if (payload.length() > empty) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    // null for our own messages
+    static Map<String, Set<String>> decode(String nodeId, String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return null;
+        }
+        Map<String, Set<String>> message = new LinkedHashMap<>();
+        for (String part : payload.substring(separator + 1).split(";")) {
+            int colon = part.indexOf(':');
+            if (colon > 0) {
+                message.computeIfAbsent(part.substring(0, colon), name -> new HashSet<>())
+                        .addAll(List.of(part.substring(colon + 1).split(",")));
+            }
+        }
+        return message;
+    }
+}
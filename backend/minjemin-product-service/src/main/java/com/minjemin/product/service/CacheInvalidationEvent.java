@@ -0,0 +1,11 @@
+package com.minjemin.product.service;
+
+import java.util.Set;
+
+// Keys another node evicted from one of its caches, keys == null means the whole cache
+public record CacheInvalidationEvent(String cacheName, Set<Long> keys) {
+
+    public boolean all() {
+        return keys == null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.repository.ItemRepository;
+import com.minjemin.product.repository.RentalRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Applies other nodes' invalidations to this node's caches and in-memory item indexes.
+// Index updates read the database, so they run on their own thread and the LISTEN connection keeps draining
+// notifications. A burst of "evict all" messages collapses into at most one running and one queued rebuild.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+    private final CacheManager cacheManager;
+    private final ItemRepository itemRepository;
+    private final RentalRepository rentalRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+
+    private final ExecutorService indexWorker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-index-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    @PreDestroy
+    public void stop() {
+        indexWorker.shutdownNow();
+    }
+
+    @EventListener
+    @SuppressWarnings("unchecked")
+    public void onInvalidation(CacheInvalidationEvent event) {
+        Cache cache = cacheManager.getCache(event.cacheName());
+        if (cache == null) {
+            return;
+        }
+        // straight to caffeine, evicting through the Spring cache would broadcast it again
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        if (event.all()) {
+            local.invalidateAll();
+        } else {
+            local.invalidateAll(event.keys());
+        }
+
+        if (CacheConfig.ITEMS.equals(event.cacheName())) {
+            if (event.all()) {
+                rebuildIndexes();
+            } else {
+                refreshItems(event.keys());
+            }
+        }
+    }
+
+    // a rebuild already queued will read everything this one would
+    private void rebuildIndexes() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        indexWorker.execute(() -> {
+            rebuildQueued.set(false);
+            try {
+                itemSearchIndex.rebuild();
+                itemAvailabilityIndex.rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Could not rebuild item indexes: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void refreshItems(Set<Long> itemIds) {
+        indexWorker.execute(() -> {
+            for (Long itemId : itemIds) {
+                try {
+                    refreshItem(itemId);
+                } catch (RuntimeException e) {
+                    // the indexes catch up on their next rebuild
+                    log.warn("Could not refresh item {} in the indexes: {}", itemId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void refreshItem(Long itemId) {
+        Optional<Item> item = itemRepository.findById(itemId);
+        if (item.isPresent()) {
+            itemSearchIndex.index(item.get());
+            itemAvailabilityIndex.reload(itemId, item.get().getStock(), rentalRepository.findActiveBookingsByItemId(itemId));
+        } else {
+            itemSearchIndex.delete(itemId);
+            itemAvailabilityIndex.removeItem(itemId);
+        }
+    }
+}
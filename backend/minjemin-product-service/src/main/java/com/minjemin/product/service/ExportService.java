@@ -0,0 +1,9 @@
+package com.minjemin.product.service;
+
+import java.io.OutputStream;
+
+public interface ExportService {
+    void exportItems(OutputStream out);
+    void exportRentals(OutputStream out);
+    void exportPayments(OutputStream out);
+}
@@ -0,0 +1,75 @@
+package com.minjemin.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minjemin.product.mapper.ItemMapper;
+import com.minjemin.product.mapper.PaymentMapper;
+import com.minjemin.product.mapper.RentalMapper;
+import com.minjemin.product.repository.ItemRepository;
+import com.minjemin.product.repository.PaymentRepository;
+import com.minjemin.product.repository.RentalRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    // matches the fetch size hint on the streaming queries
+    private static final int CLEAR_EVERY = 500;
+
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final RentalRepository rentalRepository;
+    private final RentalMapper rentalMapper;
+    private final PaymentRepository paymentRepository;
+    private final PaymentMapper paymentMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportItems(OutputStream out) {
+        writeNdjson(itemRepository.streamAll(), itemMapper::toDto, out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRentals(OutputStream out) {
+        writeNdjson(rentalRepository.streamAll(), rentalMapper::toDto, out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportPayments(OutputStream out) {
+        writeNdjson(paymentRepository.streamAll(), paymentMapper::toDto, out);
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, Function<T, ?> mapper, OutputStream out) {
+        try (rows) {
+            Iterator<T> iterator = rows.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(mapper.apply(iterator.next())));
+                out.write('\n');
+
+                // drop already written entities so the persistence context stays bounded
+                if (++written % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
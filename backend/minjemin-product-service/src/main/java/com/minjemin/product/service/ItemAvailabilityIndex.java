@@ -0,0 +1,355 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.repository.ActiveBooking;
+import com.minjemin.product.repository.ItemRepository;
+import com.minjemin.product.repository.RentalRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-memory availability index over item ids. Every booked day keeps a compressed bitmap of the items
+// that are fully booked on it, so the items free for [from, to] are the rentable items minus the union
+// of those bitmaps (the same as ANDing the per-day "available" bitmaps, without materializing them).
+// Units per item mirror findAvailability: stock on the shelf plus units out with ONGOING rentals.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex {
+
+    private static final int REBUILD_BATCH = 1000;
+
+    private final ItemRepository itemRepository;
+    private final RentalRepository rentalRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Contents contents = new Contents();
+    // ids changed while a rebuild scans the tables, null when no rebuild runs
+    private Set<Long> changedDuringRebuild;
+
+    // Scans into fresh bitmaps without the lock, so searches keep running on the old ones, then swaps them in.
+    // Items changed meanwhile are reloaded from the tables before the swap; only the last few are read under the lock.
+    // Synchronized so two rebuilds never interleave.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        takeChanged(new HashSet<>());
+        try {
+            Contents fresh = new Contents();
+            List<ActiveBooking> bookings = rentalRepository.findActiveBookings();
+            for (ActiveBooking booking : bookings) {
+                if (booking.getStatus() == RentalStatus.ONGOING) {
+                    fresh.pickedUp.merge(key(booking.getItemId()), 1, Integer::sum);
+                }
+            }
+
+            Long afterId = 0L;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_BATCH));
+                for (Item item : batch) {
+                    int id = key(item.getId());
+                    fresh.setUnits(id, stock(item.getStock()) + fresh.pickedUp.getOrDefault(id, 0));
+                    afterId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+
+            for (ActiveBooking booking : bookings) {
+                fresh.addBooking(key(booking.getItemId()), booking.getStartDate(), booking.getEndDate(), today);
+            }
+
+            reload(fresh, takeChanged(new HashSet<>()));
+            lock.writeLock().lock();
+            try {
+                reload(fresh, changedDuringRebuild);
+                contents = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            takeChanged(null);
+        }
+        log.info("Item availability index built with {} items and {} booked days in {} ms",
+                itemCount(), dayCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // item created or its stock edited directly
+    public void putItem(Long itemId, Integer stock) {
+        change(itemId, current -> {
+            int id = key(itemId);
+            current.setUnits(id, stock(stock) + current.pickedUp.getOrDefault(id, 0));
+            for (Day day : current.days.values()) {
+                day.refresh(id, current.units.get(id));
+            }
+        });
+    }
+
+    public void removeItem(Long itemId) {
+        change(itemId, current -> current.remove(key(itemId)));
+    }
+
+    // replaces everything known about one item, used when another node changed it
+    public void reload(Long itemId, Integer stock, List<ActiveBooking> bookings) {
+        change(itemId, current -> current.reload(key(itemId), stock, bookings, LocalDate.now()));
+    }
+
+    // rental became APPROVED, its unit stays in stock until pickup
+    public void book(Long itemId, LocalDate startDate, LocalDate endDate) {
+        change(itemId, current -> {
+            LocalDate today = LocalDate.now();
+            current.days.headMap(today, false).clear();
+            current.addBooking(key(itemId), startDate, endDate, today);
+        });
+    }
+
+    // rental became ONGOING: one unit left the shelf, the item's units stay the same
+    public void pickUp(Long itemId) {
+        change(itemId, current -> current.pickedUp.merge(key(itemId), 1, Integer::sum));
+    }
+
+    // APPROVED/ONGOING rental completed or removed
+    public void release(Long itemId, LocalDate startDate, LocalDate endDate, boolean pickedUpUnit) {
+        change(itemId, current -> {
+            int id = key(itemId);
+            if (pickedUpUnit) {
+                current.pickedUp.computeIfPresent(id, (k, count) -> count > 1 ? count - 1 : null);
+            }
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                Day day = current.days.get(date);
+                if (day != null && day.release(id, current.units.getOrDefault(id, 0))) {
+                    current.days.remove(date);
+                }
+            }
+        });
+    }
+
+    // ids of items with a free unit on every day of [from, to], ascending, after afterId
+    public List<Long> availableItems(LocalDate from, LocalDate to, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap rentable = contents.rentable;
+            List<RoaringBitmap> fullDays = new ArrayList<>();
+            for (Day day : contents.days.subMap(from, true, to, true).values()) {
+                fullDays.add(day.full);
+            }
+            RoaringBitmap free = fullDays.isEmpty()
+                    ? rentable
+                    : RoaringBitmap.andNot(rentable, FastAggregation.or(fullDays.iterator()));
+
+            List<Long> ids = new ArrayList<>(limit);
+            PeekableIntIterator iterator = free.getIntIterator();
+            if (afterId != null) {
+                iterator.advanceIfNeeded(key(afterId + 1));
+            }
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add((long) iterator.next());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int itemCount() {
+        lock.readLock().lock();
+        try {
+            return contents.units.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dayCount() {
+        lock.readLock().lock();
+        try {
+            return contents.days.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long bitmapBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = contents.rentable.getLongSizeInBytes();
+            for (Day day : contents.days.values()) {
+                bytes += day.full.getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("items.availability.index.items", this, ItemAvailabilityIndex::itemCount)
+                .description("Items in the availability index")
+                .register(meterRegistry);
+        Gauge.builder("items.availability.index.days", this, ItemAvailabilityIndex::dayCount)
+                .description("Days with at least one booking in the availability index")
+                .register(meterRegistry);
+        Gauge.builder("items.availability.index.memory", this, ItemAvailabilityIndex::bitmapBytes)
+                .description("Serialized size of the availability bitmaps")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private void change(Long itemId, Consumer<Contents> change) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                change.accept(contents);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(itemId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private Set<Long> takeChanged(Set<Long> next) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> changed = changedDuringRebuild;
+            changedDuringRebuild = next;
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reload(Contents target, Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        List<Long> ids = new ArrayList<>(itemIds);
+        for (int from = 0; from < ids.size(); from += REBUILD_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + REBUILD_BATCH, ids.size()));
+            Map<Long, List<ActiveBooking>> bookings = new HashMap<>();
+            for (ActiveBooking booking : rentalRepository.findActiveBookingsByItemIds(batch)) {
+                bookings.computeIfAbsent(booking.getItemId(), id -> new ArrayList<>()).add(booking);
+            }
+            batch.forEach(id -> target.remove(key(id)));
+            for (Item item : itemRepository.findAllById(batch)) {
+                target.reload(key(item.getId()), item.getStock(), bookings.getOrDefault(item.getId(), List.of()), today);
+            }
+        }
+    }
+
+    private static int key(Long itemId) {
+        return Math.toIntExact(itemId);
+    }
+
+    private static int stock(Integer stock) {
+        return stock == null ? 0 : stock;
+    }
+
+    private static final class Contents {
+        // items with at least one unit
+        private final RoaringBitmap rentable = new RoaringBitmap();
+        private final Map<Integer, Integer> units = new HashMap<>();
+        // units out with ONGOING rentals, per item
+        private final Map<Integer, Integer> pickedUp = new HashMap<>();
+        private final NavigableMap<LocalDate, Day> days = new TreeMap<>();
+
+        void setUnits(int id, int count) {
+            units.put(id, count);
+            if (count > 0) {
+                rentable.add(id);
+            } else {
+                rentable.remove(id);
+            }
+        }
+
+        // past days never answer a search, so bookings are only kept from today on
+        void addBooking(int id, LocalDate startDate, LocalDate endDate, LocalDate today) {
+            int itemUnits = units.getOrDefault(id, 0);
+            LocalDate date = startDate.isBefore(today) ? today : startDate;
+            for (; !date.isAfter(endDate); date = date.plusDays(1)) {
+                days.computeIfAbsent(date, d -> new Day()).book(id, itemUnits);
+            }
+        }
+
+        void reload(int id, Integer stock, List<ActiveBooking> bookings, LocalDate today) {
+            days.values().removeIf(day -> day.remove(id));
+            int out = (int) bookings.stream().filter(booking -> booking.getStatus() == RentalStatus.ONGOING).count();
+            pickedUp.remove(id);
+            if (out > 0) {
+                pickedUp.put(id, out);
+            }
+            setUnits(id, stock(stock) + out);
+            for (ActiveBooking booking : bookings) {
+                addBooking(id, booking.getStartDate(), booking.getEndDate(), today);
+            }
+        }
+
+        void remove(int id) {
+            rentable.remove(id);
+            units.remove(id);
+            pickedUp.remove(id);
+            days.values().removeIf(day -> day.remove(id));
+        }
+    }
+
+    private static final class Day {
+        private final Map<Integer, Integer> booked = new HashMap<>();
+        private final RoaringBitmap full = new RoaringBitmap();
+
+        void book(int id, int units) {
+            refresh(id, units, booked.merge(id, 1, Integer::sum));
+        }
+
+        // returns true when the day has no bookings left
+        boolean release(int id, int units) {
+            Integer count = booked.computeIfPresent(id, (k, c) -> c > 1 ? c - 1 : null);
+            refresh(id, units, count == null ? 0 : count);
+            return booked.isEmpty();
+        }
+
+        boolean remove(int id) {
+            booked.remove(id);
+            full.remove(id);
+            return booked.isEmpty();
+        }
+
+        void refresh(int id, int units) {
+            refresh(id, units, booked.getOrDefault(id, 0));
+        }
+
+        private void refresh(int id, int units, int count) {
+            if (count > 0 && count >= units) {
+                full.add(id);
+            } else {
+                full.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.minjemin.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Reads item rows from CSV (with a header line) or NDJSON and checks them against the items table
+// constraints, so a bad row is reported instead of aborting the whole COPY.
+@RequiredArgsConstructor
+class ItemImportReader {
+
+    private static final int MAX_TEXT = 255;
+
+    interface Rows {
+        void valid(ItemDTO item);
+
+        void invalid(long row, String message);
+    }
+
+    private final ObjectMapper objectMapper;
+
+    void read(BufferedReader in, ItemImportService.Format format, Rows rows) throws IOException {
+        if (format == ItemImportService.Format.NDJSON) {
+            readNdjson(in, rows);
+        } else {
+            readCsv(in, rows);
+        }
+    }
+
+    private void readCsv(BufferedReader in, Rows rows) throws IOException {
+        List<String> header = readRecord(in);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i) != null) {
+                columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+            }
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("priceperday")) {
+            throw new BadRequestException("CSV header must contain name and pricePerDay");
+        }
+
+        long row = 0;
+        List<String> record;
+        while ((record = readRecord(in)) != null) {
+            if (record.size() == 1 && record.get(0) == null) {
+                continue; // blank line
+            }
+            row++;
+            try {
+                String price = field(record, columns, "priceperday");
+                String stock = field(record, columns, "stock");
+                accept(ItemDTO.builder()
+                        .name(field(record, columns, "name"))
+                        .description(field(record, columns, "description"))
+                        .pricePerDay(price == null ? null : parseNumber(price, "pricePerDay is not a number"))
+                        .stock(stock == null ? null : parseInteger(stock))
+                        .build(), rows);
+            } catch (InvalidRowException e) {
+                rows.invalid(row, e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader in, Rows rows) throws IOException {
+        long row = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    throw new InvalidRowException("not a JSON object");
+                }
+                accept(ItemDTO.builder()
+                        .name(text(node, "name"))
+                        .description(text(node, "description"))
+                        .pricePerDay(number(node, "pricePerDay"))
+                        .stock(integer(node, "stock"))
+                        .build(), rows);
+            } catch (JsonProcessingException e) {
+                rows.invalid(row, "malformed JSON");
+            } catch (InvalidRowException e) {
+                rows.invalid(row, e.getMessage());
+            }
+        }
+    }
+
+    private static void accept(ItemDTO item, Rows rows) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            throw new InvalidRowException("name is required");
+        }
+        if (item.getName().length() > MAX_TEXT) {
+            throw new InvalidRowException("name is longer than " + MAX_TEXT + " characters");
+        }
+        if (item.getDescription() != null && item.getDescription().length() > MAX_TEXT) {
+            throw new InvalidRowException("description is longer than " + MAX_TEXT + " characters");
+        }
+        if (item.getPricePerDay() == null) {
+            throw new InvalidRowException("pricePerDay is required");
+        }
+        if (item.getPricePerDay() < 0 || item.getPricePerDay().isInfinite()) {
+            throw new InvalidRowException("pricePerDay must not be negative");
+        }
+        // same default as Item.stock
+        if (item.getStock() == null) {
+            item.setStock(1);
+        }
+        if (item.getStock() < 0) {
+            throw new InvalidRowException("stock must not be negative");
+        }
+        item.setAvailable(item.getStock() > 0);
+        rows.valid(item);
+    }
+
+    // RFC 4180 record: quoted fields may hold commas, newlines and "" escapes.
+    // An empty unquoted field reads as null, returns null at end of input.
+    static List<String> readRecord(BufferedReader in) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quoted = false;
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        for (; c != -1; c = in.read()) {
+            if (inQuotes) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"');
+                    } else {
+                        in.reset();
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(value(field, quoted));
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (inQuotes) {
+            throw new BadRequestException("CSV has an unterminated quoted field");
+        }
+        fields.add(value(field, quoted));
+        return fields;
+    }
+
+    private static String value(StringBuilder field, boolean quoted) {
+        return field.length() == 0 && !quoted ? null : field.toString();
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Double number(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isNumber()) {
+            return value.doubleValue();
+        }
+        if (value.isTextual()) {
+            return parseNumber(value.asText(), name + " is not a number");
+        }
+        throw new InvalidRowException(name + " is not a number");
+    }
+
+    private static Integer integer(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isIntegralNumber() && value.canConvertToInt()) {
+            return value.intValue();
+        }
+        if (value.isTextual()) {
+            return parseInteger(value.asText());
+        }
+        throw new InvalidRowException(name + " is not an integer");
+    }
+
+    private static Double parseNumber(String value, String message) {
+        try {
+            double number = Double.parseDouble(value.trim());
+            if (Double.isNaN(number)) {
+                throw new InvalidRowException(message);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException(message);
+        }
+    }
+
+    private static Integer parseInteger(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException("stock is not an integer");
+        }
+    }
+
+    private static class InvalidRowException extends RuntimeException {
+        // no stack trace, a bad file can have thousands of these
+        InvalidRowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
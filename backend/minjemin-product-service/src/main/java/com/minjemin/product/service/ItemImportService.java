@@ -0,0 +1,11 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.dto.ImportResultDTO;
+
+import java.io.InputStream;
+
+public interface ItemImportService {
+    enum Format { CSV, NDJSON }
+
+    ImportResultDTO importItems(InputStream in, Format format, String ownerId);
+}
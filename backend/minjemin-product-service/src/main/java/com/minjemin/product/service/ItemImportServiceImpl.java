@@ -0,0 +1,249 @@
+package com.minjemin.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.dto.ImportErrorDTO;
+import com.minjemin.product.dto.ImportResultDTO;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.repository.ItemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Streams validated rows with COPY straight into items, in one transaction, so the valid rows land together or
+// not at all. COPY cannot return generated ids, so they are read back afterwards as the owner's rows written by
+// this transaction (xmin), which stays exact even while the same owner creates items elsewhere.
+// The in-memory indexes pick the rows up after commit on a background thread, off the request.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImportServiceImpl implements ItemImportService {
+
+    private static final String COPY_ITEMS = "COPY items (name, description, price_per_day, stock, available, owner_id) "
+            + "FROM STDIN WITH (FORMAT csv)";
+    private static final String COPIED_IDS = "SELECT id FROM items WHERE owner_id = ? AND xmin = pg_current_xact_id()::xid "
+            + "ORDER BY id";
+    private static final int FLUSH_CHARS = 64 * 1024;
+    private static final int MAX_ERRORS = 1000;
+    private static final int INDEX_BATCH = 1000;
+
+    private final DataSource dataSource;
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final CacheManager cacheManager;
+
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-import-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        indexer.shutdownNow();
+    }
+
+    @Override
+    public ImportResultDTO importItems(InputStream in, Format format, String ownerId) {
+        long start = System.nanoTime();
+        List<ImportErrorDTO> errors = new ArrayList<>();
+        long[] failed = {0};
+        List<Long> ids = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                copy(connection, in, format, ownerId, errors, failed, ids);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Item import failed", e);
+        }
+
+        indexer.execute(() -> indexImported(ids));
+        log.info("Imported {} items ({} rejected) for {} in {} ms",
+                ids.size(), failed[0], ownerId, (System.nanoTime() - start) / 1_000_000);
+
+        return ImportResultDTO.builder()
+                .imported(ids.size())
+                .failed(failed[0])
+                .errors(errors)
+                .build();
+    }
+
+    private void copy(Connection connection, InputStream in, Format format, String ownerId,
+                      List<ImportErrorDTO> errors, long[] failed, List<Long> ids) throws SQLException {
+        CopyWriter writer = new CopyWriter(connection, ownerId);
+        try {
+            new ItemImportReader(objectMapper).read(
+                    new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)),
+                    format,
+                    new ItemImportReader.Rows() {
+                        @Override
+                        public void valid(ItemDTO item) {
+                            writer.write(item);
+                        }
+
+                        @Override
+                        public void invalid(long row, String message) {
+                            failed[0]++;
+                            if (errors.size() < MAX_ERRORS) {
+                                errors.add(ImportErrorDTO.builder().row(row).message(message).build());
+                            }
+                        }
+                    });
+            writer.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.cancel();
+        }
+
+        if (writer.written() == 0) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(COPIED_IDS)) {
+            statement.setString(1, ownerId);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    ids.add(rows.getLong(1));
+                }
+            }
+        }
+    }
+
+    // runs after commit on the indexer thread, loads the imported rows by id in batches
+    private void indexImported(List<Long> ids) {
+        try {
+            for (int from = 0; from < ids.size(); from += INDEX_BATCH) {
+                for (Item item : itemRepository.findAllById(ids.subList(from, Math.min(from + INDEX_BATCH, ids.size())))) {
+                    itemSearchIndex.index(item);
+                    itemAvailabilityIndex.putItem(item.getId(), item.getStock());
+                }
+            }
+        } catch (RuntimeException e) {
+            // the indexes catch up on their next rebuild
+            log.warn("Could not index {} imported items: {}", ids.size(), e.getMessage());
+        }
+
+        // announces the new rows to other nodes: a few keys, or one "evict all" for a bulk import
+        Cache items = cacheManager.getCache(CacheConfig.ITEMS);
+        if (items == null) {
+            return;
+        }
+        if (ids.size() > INDEX_BATCH) {
+            items.clear();
+        } else {
+            ids.forEach(items::evict);
+        }
+    }
+
+    // Buffers COPY csv lines and hands them to the driver in large chunks, the COPY starts with the first valid row
+    private static class CopyWriter {
+        private final Connection connection;
+        private final String ownerId;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 1024);
+        private CopyIn copyIn;
+        private long written;
+
+        CopyWriter(Connection connection, String ownerId) {
+            this.connection = connection;
+            this.ownerId = ownerId;
+        }
+
+        void write(ItemDTO item) {
+            quote(item.getName()).append(',');
+            quote(item.getDescription()).append(',');
+            buffer.append(item.getPricePerDay()).append(',')
+                    .append(item.getStock()).append(',')
+                    .append(item.isAvailable()).append(',');
+            quote(ownerId).append('\n');
+            written++;
+            if (buffer.length() >= FLUSH_CHARS) {
+                flush();
+            }
+        }
+
+        long written() {
+            return written;
+        }
+
+        void end() {
+            flush();
+            try {
+                if (copyIn != null) {
+                    copyIn.endCopy();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Item import failed", e);
+            }
+        }
+
+        void cancel() throws SQLException {
+            if (copyIn != null && copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        private void flush() {
+            if (buffer.length() == 0) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                if (copyIn == null) {
+                    copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_ITEMS);
+                }
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Item import failed", e);
+            }
+            buffer.setLength(0);
+        }
+
+        // null stays an unquoted empty field, which COPY csv reads as NULL
+        private StringBuilder quote(String value) {
+            if (value == null) {
+                return buffer;
+            }
+            buffer.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            return buffer.append('"');
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.mapper.ItemMapper;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.repository.ItemRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-memory inverted index over item name and description, ranked with BM25.
+// Every query token is matched as a prefix; exact term matches score higher than prefix matches.
+// Changes made inside a transaction are applied after it commits, so rolled back writes never show up in search.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_BOOST = 2;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final int REBUILD_BATCH = 1000;
+    private static final long POSTING_BYTES = 64;
+
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Contents contents = new Contents();
+    // ids changed while a rebuild scans the table, null when no rebuild runs
+    private Set<Long> changedDuringRebuild;
+
+    // Scans into fresh contents without the lock, so searches keep running on the old ones, then swaps them in.
+    // Items changed meanwhile are re-read from the table before the swap; only the last few are read under the lock.
+    // Synchronized so two rebuilds never interleave.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        takeChanged(new HashSet<>());
+        try {
+            Contents fresh = new Contents();
+            Long afterId = 0L;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_BATCH));
+                for (Item item : batch) {
+                    fresh.add(itemMapper.toDto(item));
+                    afterId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+
+            reload(fresh, takeChanged(new HashSet<>()));
+            lock.writeLock().lock();
+            try {
+                reload(fresh, changedDuringRebuild);
+                contents = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            takeChanged(null);
+        }
+        log.info("Item search index built with {} items and {} terms in {} ms",
+                documentCount(), termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void index(Item item) {
+        ItemDTO dto = itemMapper.toDto(item);
+        change(dto.getId(), current -> {
+            current.remove(dto.getId());
+            current.add(dto);
+        });
+    }
+
+    public void updateStock(Long itemId, Integer stock) {
+        if (stock == null) {
+            return;
+        }
+        change(itemId, current -> {
+            Document document = current.documents.get(itemId);
+            if (document != null) {
+                ItemDTO item = document.item().toBuilder().stock(stock).available(stock > 0).build();
+                current.documents.put(itemId, new Document(item, document.terms(), document.length()));
+            }
+        });
+    }
+
+    public void delete(Long itemId) {
+        change(itemId, current -> current.remove(itemId));
+    }
+
+    public List<ItemDTO> search(String query, int size) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Document> documents = contents.documents;
+            int n = documents.size();
+            double avgLength = n == 0 ? 0 : (double) contents.totalLength / n;
+
+            // every query token must match (AND), scores add up across tokens
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Integer>> entry : contents.postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                    double weight = entry.getKey().equals(term) ? 1.0 : PREFIX_WEIGHT;
+                    Map<Long, Integer> posting = entry.getValue();
+                    double idf = Math.log(1 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+                    for (Map.Entry<Long, Integer> hit : posting.entrySet()) {
+                        int tf = hit.getValue();
+                        int length = documents.get(hit.getKey()).length();
+                        double score = weight * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+                        termScores.merge(hit.getKey(), score, Math::max);
+                    }
+                }
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                    .limit(Cursors.pageSize(size))
+                    .map(entry -> documents.get(entry.getKey()).item())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return contents.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return contents.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // rough heap estimate kept up to date by add and remove, so a metrics scrape never walks the index
+    public long estimatedMemoryBytes() {
+        return contents.memoryBytes;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void change(Long itemId, Consumer<Contents> change) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                change.accept(contents);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(itemId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private Set<Long> takeChanged(Set<Long> next) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> changed = changedDuringRebuild;
+            changedDuringRebuild = next;
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reload(Contents target, Set<Long> itemIds) {
+        List<Long> ids = new ArrayList<>(itemIds);
+        for (int from = 0; from < ids.size(); from += REBUILD_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + REBUILD_BATCH, ids.size()));
+            batch.forEach(target::remove);
+            for (Item item : itemRepository.findAllById(batch)) {
+                target.add(itemMapper.toDto(item));
+            }
+        }
+    }
+
+    private static long documentBytes(Document document) {
+        return 64 + 160                                         // map entry + dto
+                + 2L * length(document.item().getName()) + 2L * length(document.item().getDescription())
+                + 48 + document.terms().size() * 64L;
+    }
+
+    private static long termBytes(String term) {
+        return 40 + 40 + 2L * term.length() + 48;               // tree node + term string + posting map
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("items.search.index.documents", this, ItemSearchIndex::documentCount)
+                .description("Items in the search index")
+                .register(meterRegistry);
+        Gauge.builder("items.search.index.terms", this, ItemSearchIndex::termCount)
+                .description("Distinct terms in the search index")
+                .register(meterRegistry);
+        Gauge.builder("items.search.index.memory", this, ItemSearchIndex::estimatedMemoryBytes)
+                .description("Estimated heap used by the search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record Document(ItemDTO item, Map<String, Integer> terms, int length) {
+    }
+
+    private static final class Contents {
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private long totalLength;
+        private volatile long memoryBytes;
+
+        void add(ItemDTO item) {
+            Map<String, Integer> terms = new HashMap<>();
+            for (String token : tokenize(item.getName())) {
+                terms.merge(token, NAME_BOOST, Integer::sum);
+            }
+            for (String token : tokenize(item.getDescription())) {
+                terms.merge(token, 1, Integer::sum);
+            }
+
+            int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+            Document document = new Document(item, terms, length);
+            documents.put(item.getId(), document);
+            totalLength += length;
+            long bytes = documentBytes(document);
+            for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+                Map<Long, Integer> posting = postings.get(entry.getKey());
+                if (posting == null) {
+                    posting = new HashMap<>();
+                    postings.put(entry.getKey(), posting);
+                    bytes += termBytes(entry.getKey());
+                }
+                posting.put(item.getId(), entry.getValue());
+                bytes += POSTING_BYTES;
+            }
+            memoryBytes += bytes;
+        }
+
+        void remove(Long itemId) {
+            Document document = documents.remove(itemId);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length();
+            long bytes = documentBytes(document);
+            for (String term : document.terms().keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null && posting.remove(itemId) != null) {
+                    bytes += POSTING_BYTES;
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                        bytes += termBytes(term);
+                    }
+                }
+            }
+            memoryBytes -= bytes;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.minjemin.product.service;
 
+import com.minjemin.product.dto.AvailabilityDTO;
+import com.minjemin.product.dto.CursorPageDTO;
 import com.minjemin.product.dto.ItemDTO;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ItemService {
     ItemDTO createItem(ItemDTO dto, String userId);
-    List<ItemDTO> getMyItems(String userId, String name, Double minPrice, Double maxPrice);
+    CursorPageDTO<ItemDTO> getMyItems(String userId, String name, Double minPrice, Double maxPrice,
+                                      String cursor, int size);
+    List<ItemDTO> searchItems(String query, int size);
     ItemDTO getItemById(Long id);
-    List<ItemDTO> getAllItems();
+    AvailabilityDTO getAvailability(Long id, LocalDate from, LocalDate to);
+    CursorPageDTO<ItemDTO> getAvailableItems(LocalDate from, LocalDate to, String cursor, int size);
+    CursorPageDTO<ItemDTO> getAllItems(String cursor, int size);
     ItemDTO updateItemById(Long id, ItemDTO dto);
     void deleteItemById(Long id);
 }
@@ -1,18 +1,33 @@
 package com.minjemin.product.service;
 
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.dto.AvailabilityDTO;
+import com.minjemin.product.dto.CursorPageDTO;
 import com.minjemin.product.dto.ItemDTO;
 import com.minjemin.product.exception.BadRequestException;
 import com.minjemin.product.exception.NotFoundException;
 import com.minjemin.product.mapper.ItemMapper;
 import com.minjemin.product.model.Item;
-import com.minjemin.product.model.Rental;
 import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.repository.ItemAvailability;
 import com.minjemin.product.repository.ItemRepository;
 import com.minjemin.product.repository.RentalRepository;
+import com.minjemin.product.repository.RentalStatusCount;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +37,10 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
     private final RentalRepository rentalRepository;
+    private final StatService statService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final CacheManager cacheManager;
 
     @Override
     public ItemDTO createItem(ItemDTO dto, String userId) {
@@ -29,35 +48,96 @@ public class ItemServiceImpl implements ItemService {
         item.setOwnerId(userId);
         item.setAvailable(true);
         Item saved = itemRepository.save(item);
+        itemSearchIndex.index(saved);
+        itemAvailabilityIndex.putItem(saved.getId(), saved.getStock());
+        // nothing cached yet, the eviction tells the other nodes to index the new item
+        evictItem(saved.getId());
         return itemMapper.toDto(saved);
     }
 
     @Override
-    public List<ItemDTO> getMyItems(String userId, String name, Double minPrice, Double maxPrice) {
-        return itemRepository.findByOwnerId(userId)
-                .stream()
-                .filter(item -> name == null || item.getName().toLowerCase().contains(name.toLowerCase()))
-                .filter(item -> minPrice == null || item.getPricePerDay() >= minPrice)
-                .filter(item -> maxPrice == null || item.getPricePerDay() <= maxPrice)
-                .map(itemMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ItemDTO> getMyItems(String userId, String name, Double minPrice, Double maxPrice,
+                                             String cursor, int size) {
+        int pageSize = Cursors.pageSize(size);
+        Specification<Item> spec = ItemSpecification.filterMyItems(userId, Cursors.decodeId(cursor),
+                name, minPrice, maxPrice);
+
+        // fetch one extra row to know whether another page exists
+        List<Item> items = itemRepository.findBy(spec, query -> query
+                .sortBy(Sort.by("id"))
+                .limit(pageSize + 1)
+                .all());
+        return toPage(items, pageSize);
+    }
+
+    @Override
+    public List<ItemDTO> searchItems(String query, int size) {
+        return itemSearchIndex.search(query, size);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.ITEMS, key = "#id")
     public ItemDTO getItemById(Long id) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new NotFoundException("item not found"));
         return itemMapper.toDto(item);
     }
 
     @Override
-    public List<ItemDTO> getAllItems() {
-        List<Item> items = itemRepository.findAll();
-        return items.stream().map(itemMapper::toDto).collect(Collectors.toList());
+    public AvailabilityDTO getAvailability(Long id, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must be before or equal to");
+        }
+
+        ItemAvailability availability = rentalRepository.findAvailability(id, from, to);
+        if (availability == null) {
+            throw new NotFoundException("item not found");
+        }
+
+        return AvailabilityDTO.builder()
+                .itemId(id)
+                .from(from)
+                .to(to)
+                .units(availability.getUnits())
+                .booked(availability.getBooked())
+                .available(availability.getBooked() < availability.getUnits())
+                .build();
+    }
+
+    @Override
+    public CursorPageDTO<ItemDTO> getAvailableItems(LocalDate from, LocalDate to, String cursor, int size) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must be before or equal to");
+        }
+
+        int pageSize = Cursors.pageSize(size);
+        List<Long> ids = itemAvailabilityIndex.availableItems(from, to, Cursors.decodeId(cursor), pageSize + 1);
+        List<Item> items = itemRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .toList();
+        return toPage(items, pageSize);
+    }
+
+    @Override
+    public CursorPageDTO<ItemDTO> getAllItems(String cursor, int size) {
+        int pageSize = Cursors.pageSize(size);
+        List<Item> items = itemRepository.findByIdGreaterThanOrderByIdAsc(Cursors.decodeId(cursor),
+                Limit.of(pageSize + 1));
+        return toPage(items, pageSize);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#id")
     public ItemDTO updateItemById(Long id, ItemDTO dto) {
+        // the owner's stock edit waits for in-flight reserveStock/releaseStock instead of overwriting them
+        if (itemRepository.lockById(id) == null) {
+            throw new NotFoundException("item not found");
+        }
         Item item = itemRepository.findById(id).orElseThrow(() -> new NotFoundException("item not found"));
+        // cached rentals carry the item name
+        if (!Objects.equals(item.getName(), dto.getName())) {
+            evictRentalsOf(id);
+        }
         item.setName(dto.getName());
         item.setDescription(dto.getDescription());
         item.setPricePerDay(dto.getPricePerDay());
@@ -65,22 +145,57 @@ public class ItemServiceImpl implements ItemService {
         item.setStock(dto.getStock());
 
         Item saved = itemRepository.save(item);
+        itemSearchIndex.index(saved);
+        itemAvailabilityIndex.putItem(saved.getId(), saved.getStock());
         return itemMapper.toDto(saved);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#id")
     public void deleteItemById(Long id) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item not found"));
 
-        List<Rental> rentals = rentalRepository.findByItem_IdAndStatusNotIn(id,
-                List.of(RentalStatus.COMPLETED, RentalStatus.CANCELLED));
+        boolean stillRented = rentalRepository.existsByItem_IdAndStatusIn(id,
+                List.of(RentalStatus.PENDING, RentalStatus.APPROVED, RentalStatus.ONGOING));
 
-        if (!rentals.isEmpty()) {
+        if (stillRented) {
             throw new BadRequestException("Item still used in Rentals");
         }
 
+        // keep rental counters in sync with the finished rentals removed below
+        for (RentalStatusCount count : rentalRepository.countByItemIdGroupByStatus(id)) {
+            statService.recordRemoval(count.getStatus(), count.getTotal());
+        }
+
+        evictRentalsOf(id);
         itemRepository.delete(item);
         rentalRepository.deleteByItem_Id(id);
+        itemSearchIndex.delete(id);
+        itemAvailabilityIndex.removeItem(id);
+    }
+
+    private void evictItem(Long itemId) {
+        Cache items = cacheManager.getCache(CacheConfig.ITEMS);
+        if (items != null) {
+            items.evict(itemId);
+        }
+    }
+
+    private void evictRentalsOf(Long itemId) {
+        Cache rentals = cacheManager.getCache(CacheConfig.RENTALS);
+        if (rentals != null) {
+            rentalRepository.findIdsByItemId(itemId).forEach(rentals::evict);
+        }
+    }
+
+    private CursorPageDTO<ItemDTO> toPage(List<Item> items, int pageSize) {
+        boolean hasNext = items.size() > pageSize;
+        List<Item> page = hasNext ? items.subList(0, pageSize) : items;
+        return CursorPageDTO.<ItemDTO>builder()
+                .content(page.stream().map(itemMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(hasNext ? Cursors.encode(page.get(page.size() - 1).getId()) : null)
+                .build();
     }
 }
@@ -0,0 +1,61 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.model.Item;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class ItemSpecification {
+
+    static final char LIKE_ESCAPE = '\\';
+
+    public static Specification<Item> filterMyItems(String ownerId, Long afterId, String name,
+                                                    Double minPrice, Double maxPrice) {
+
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // Filter based on ownerId, uses idx_items_owner_id_id / idx_items_owner_id_price_per_day
+            predicates.add(criteriaBuilder.equal(root.get("ownerId"), ownerId));
+
+            // Keyset: only rows after the last id of the previous page
+            if (afterId != null && afterId > 0) {
+                predicates.add(criteriaBuilder.greaterThan(root.get("id"), afterId));
+            }
+
+            // Filter based on Name, WHERE LOWER(name) LIKE '%input%' is served by the trigram index
+            if (name != null && !name.isBlank()) {
+                predicates.add(criteriaBuilder.like(
+                        criteriaBuilder.lower(root.get("name")),
+                        containsPattern(name),
+                        LIKE_ESCAPE
+                ));
+            }
+
+            // Filter based on Price
+            if (minPrice != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("pricePerDay"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("pricePerDay"), maxPrice));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // '%input%' with the input's own % and _ matched literally
+    static String containsPattern(String value) {
+        StringBuilder pattern = new StringBuilder(value.length() + 2).append('%');
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.minjemin.product.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+// Local stand-in for a real provider: waits latency and accepts every charge and refund.
+// The ref is derived from the intent, so a repeated charge gets the same ref back.
+@Component
+@ConditionalOnProperty(prefix = "minjemin.payments.gateway", name = "type", havingValue = "mock", matchIfMissing = true)
+public class MockPaymentGateway implements PaymentGateway {
+
+    private final Duration latency;
+
+    public MockPaymentGateway(@Value("${minjemin.payments.gateway.mock.latency:100ms}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public String charge(Long intentId, String payerId, Double amount) {
+        await(intentId);
+        return "MOCK-" + UUID.nameUUIDFromBytes(("payment-intent:" + intentId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void refund(Long intentId, String paymentRef) {
+        await(intentId);
+    }
+
+    private void await(Long intentId) {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling the gateway for payment intent " + intentId, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.minjemin.product.service;
+
+// External payment provider called by PaymentOutboxWorker.
+// intentId doubles as the provider's idempotency key: when a worker's lease runs out mid-call the intent is
+// charged again by another worker, and the provider must answer that with the first charge.
+public interface PaymentGateway {
+    // Returns the provider's payment reference. PaymentDeclinedException fails the intent,
+    // any other exception is retried.
+    String charge(Long intentId, String payerId, Double amount);
+
+    // Gives a charge back when its intent could not be settled because the rental was paid some other way.
+    // Has to be idempotent on paymentRef as well, two workers that charged the same intent refund the same charge.
+    void refund(Long intentId, String paymentRef);
+}
@@ -0,0 +1,109 @@
+package com.minjemin.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minjemin.product.dto.PaymentDTO;
+import com.minjemin.product.repository.PaymentRepository;
+import com.minjemin.product.repository.PaymentRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Stored responses of Idempotency-Key payments. Recent keys are answered from a bounded LRU on this node,
+// the rest from payment_idempotency_keys, which payRental fills in the same statement as the payment.
+// Keys older than the ttl are forgotten and purged.
+@Slf4j
+@Component
+public class PaymentIdempotencyStore {
+
+    private static final long PURGE_INTERVAL_MINUTES = 60;
+
+    private final PaymentRepository paymentRepository;
+    private final Duration ttl;
+    private final Cache<String, PaymentDTO> recent;
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-idempotency-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PaymentIdempotencyStore(PaymentRepository paymentRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${minjemin.payments.idempotency.max-size:10000}") long maxSize,
+                                   @Value("${minjemin.payments.idempotency.ttl:24h}") Duration ttl) {
+        this.paymentRepository = paymentRepository;
+        this.ttl = ttl;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "payments.idempotency");
+    }
+
+    public Optional<PaymentDTO> find(String payerId, String idempotencyKey) {
+        String key = key(payerId, idempotencyKey);
+        PaymentDTO payment = recent.getIfPresent(key);
+        if (payment == null) {
+            PaymentRow row = paymentRepository.findByIdempotencyKey(payerId, idempotencyKey);
+            if (row == null) {
+                return Optional.empty();
+            }
+            payment = toDto(row);
+            recent.put(key, payment);
+        }
+        return Optional.of(payment);
+    }
+
+    // the payment is already committed together with its key row
+    public void remember(String payerId, String idempotencyKey, PaymentDTO payment) {
+        recent.put(key(payerId, idempotencyKey), payment);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purger.scheduleWithFixedDelay(this::purge, PURGE_INTERVAL_MINUTES, PURGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        purger.shutdownNow();
+    }
+
+    void purge() {
+        try {
+            int purged = paymentRepository.deleteIdempotencyKeysBefore(LocalDateTime.now().minus(ttl));
+            if (purged > 0) {
+                log.info("Purged {} expired payment idempotency keys", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not purge payment idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    static PaymentDTO toDto(PaymentRow row) {
+        return PaymentDTO.builder()
+                .id(row.getId())
+                .amount(row.getAmount())
+                .paidAt(row.getPaidAt())
+                .rentalId(row.getRentalId())
+                .paymentRef(row.getPaymentRef())
+                .build();
+    }
+
+    private static String key(String payerId, String idempotencyKey) {
+        return payerId + '\n' + idempotencyKey;
+    }
+}
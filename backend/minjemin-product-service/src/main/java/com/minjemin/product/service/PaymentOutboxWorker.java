@@ -0,0 +1,193 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.exception.PaymentDeclinedException;
+import com.minjemin.product.model.PaymentIntentStatus;
+import com.minjemin.product.repository.ClaimedPayment;
+import com.minjemin.product.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drains payment_outbox on every node. Each poll claims batches with SKIP LOCKED (PaymentRepository.claimOutbox),
+// so nodes split the queue instead of double-processing it, and charges the gateway for a batch on a small
+// pool that bounds its latency, no servlet thread or pooled connection waits on the provider.
+// Settling is one statement per intent. A transient gateway error puts the row back after retry-delay * attempts,
+// past max-attempts the intent fails. A node that dies mid-batch leaves its rows to reappear after the lease.
+// An intent whose rental got paid some other way is failed before the charge, or refunded if that happened mid-charge.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "minjemin.payments.worker", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentOutboxWorker {
+
+    static final String GATEWAY_TIMER = "payments.gateway.charge";
+    static final String SETTLED = "payments.intents.settled";
+    static final String REFUNDS = "payments.gateway.refunds";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentGateway paymentGateway;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-outbox-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService gatewayCalls;
+    private volatile boolean stopping;
+
+    public PaymentOutboxWorker(PaymentRepository paymentRepository,
+                               PaymentGateway paymentGateway,
+                               CacheManager cacheManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${minjemin.payments.worker.poll-interval:200ms}") Duration pollInterval,
+                               @Value("${minjemin.payments.worker.batch-size:20}") int batchSize,
+                               @Value("${minjemin.payments.worker.concurrency:8}") int concurrency,
+                               @Value("${minjemin.payments.worker.lease:60s}") Duration lease,
+                               @Value("${minjemin.payments.worker.max-attempts:5}") int maxAttempts,
+                               @Value("${minjemin.payments.worker.retry-delay:5s}") Duration retryDelay) {
+        this.paymentRepository = paymentRepository;
+        this.paymentGateway = paymentGateway;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        AtomicInteger threads = new AtomicInteger();
+        this.gatewayCalls = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = pollInterval.toMillis();
+        poller.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        poller.shutdown();
+        // lets the batch in hand settle, whatever is left comes back after the lease
+        poller.awaitTermination(lease.toMillis(), TimeUnit.MILLISECONDS);
+        gatewayCalls.shutdownNow();
+    }
+
+    // one poll: claims and processes batches until the queue has no due rows
+    void drain() {
+        try {
+            List<ClaimedPayment> batch;
+            do {
+                batch = paymentRepository.claimOutbox(batchSize, lease.toSeconds());
+                List<Future<?>> calls = new ArrayList<>(batch.size());
+                for (ClaimedPayment claimed : batch) {
+                    calls.add(gatewayCalls.submit(() -> process(claimed)));
+                }
+                for (Future<?> call : calls) {
+                    try {
+                        call.get();
+                    } catch (ExecutionException e) {
+                        // the row stays leased and is picked up again once the lease is over
+                        log.warn("Could not process payment outbox row: {}", e.getCause().getMessage());
+                    }
+                }
+            } while (!stopping && batch.size() == batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Could not claim payment outbox rows: {}", e.getMessage());
+        }
+    }
+
+    void process(ClaimedPayment claimed) {
+        if (claimed.getAttempts() > maxAttempts) {
+            settled(paymentRepository.failIntent(claimed.getIntentId(), claimed.getOutboxId(),
+                    "Payment gateway unavailable"), claimed);
+            return;
+        }
+        // the rental may have been paid through createPayment while this intent was queued
+        String alreadyPaid = paymentRepository.failPaidIntent(claimed.getIntentId(), claimed.getOutboxId());
+        if (alreadyPaid != null) {
+            settled(alreadyPaid, claimed);
+            return;
+        }
+        String paymentRef;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            paymentRef = paymentGateway.charge(claimed.getIntentId(), claimed.getPayerId(), claimed.getAmount());
+            sample.stop(meterRegistry.timer(GATEWAY_TIMER, "outcome", "charged"));
+        } catch (PaymentDeclinedException e) {
+            sample.stop(meterRegistry.timer(GATEWAY_TIMER, "outcome", "declined"));
+            settled(paymentRepository.failIntent(claimed.getIntentId(), claimed.getOutboxId(), e.getMessage()), claimed);
+            return;
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer(GATEWAY_TIMER, "outcome", "error"));
+            log.warn("Payment gateway failed for intent {} (attempt {}): {}",
+                    claimed.getIntentId(), claimed.getAttempts(), e.getMessage());
+            paymentRepository.retryOutbox(claimed.getOutboxId(), retryDelay.toSeconds() * claimed.getAttempts());
+            return;
+        }
+
+        String status = paymentRepository.completeIntent(claimed.getIntentId(), claimed.getOutboxId(), paymentRef);
+        if (PaymentIntentStatus.SUCCEEDED.name().equals(status)) {
+            Cache rentals = cacheManager.getCache(CacheConfig.RENTALS);
+            if (rentals != null) {
+                rentals.evict(claimed.getRentalId());
+            }
+        } else if (PaymentIntentStatus.FAILED.name().equals(status)) {
+            // paid some other way between the check above and the charge
+            refund(claimed, paymentRef);
+        }
+        settled(status, claimed);
+    }
+
+    private void refund(ClaimedPayment claimed, String paymentRef) {
+        try {
+            paymentGateway.refund(claimed.getIntentId(), paymentRef);
+            meterRegistry.counter(REFUNDS, "outcome", "refunded").increment();
+        } catch (RuntimeException e) {
+            // the intent is already settled, nothing retries this, so it has to be reconciled by hand
+            meterRegistry.counter(REFUNDS, "outcome", "error").increment();
+            log.error("Could not refund payment {} of intent {}: {}", paymentRef, claimed.getIntentId(), e.getMessage());
+        }
+    }
+
+    // status is null when another worker settled the intent first
+    private void settled(String status, ClaimedPayment claimed) {
+        if (status == null) {
+            log.info("Payment intent {} was already settled by another worker", claimed.getIntentId());
+            return;
+        }
+        meterRegistry.counter(SETTLED, "status", status).increment();
+    }
+}
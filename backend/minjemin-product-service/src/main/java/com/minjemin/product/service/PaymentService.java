@@ -1,7 +1,12 @@
 package com.minjemin.product.service;
 
-import com.minjemin.product.model.Payment;
+import com.minjemin.product.dto.PaymentDTO;
+import com.minjemin.product.dto.PaymentIntentDTO;
 
 public interface PaymentService {
-    Payment createPayment(Long rentalId, String payerId, Double amount);
+    PaymentDTO createPayment(Long rentalId, String payerId, Double amount, String idempotencyKey);
+
+    PaymentIntentDTO submitPayment(Long rentalId, String payerId, Double amount, String idempotencyKey);
+
+    PaymentIntentDTO getPaymentIntent(Long intentId, String payerId);
 }
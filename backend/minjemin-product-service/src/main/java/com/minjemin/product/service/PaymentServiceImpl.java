@@ -1,47 +1,174 @@
 package com.minjemin.product.service;
 
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.dto.PaymentDTO;
+import com.minjemin.product.dto.PaymentIntentDTO;
 import com.minjemin.product.exception.BadRequestException;
 import com.minjemin.product.exception.NotFoundException;
-import com.minjemin.product.model.Payment;
 import com.minjemin.product.model.Rental;
+import com.minjemin.product.repository.PaymentIntentRow;
 import com.minjemin.product.repository.PaymentRepository;
+import com.minjemin.product.repository.PaymentRow;
 import com.minjemin.product.repository.RentalRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
+// No surrounding transaction: a replay is answered by the idempotency store without a connection to rentals,
+// and the payment itself is a single statement (PaymentRepository.payRental).
+// submitPayment only records an intent, PaymentOutboxWorker charges the gateway and settles it later.
 @Service
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final int MAX_KEY_LENGTH = 255;
+
     private final RentalRepository rentalRepository;
     private final PaymentRepository paymentRepository;
+    private final PaymentIdempotencyStore idempotencyStore;
+    private final CacheManager cacheManager;
+
+    @Override
+    public PaymentDTO createPayment(Long rentalId, String payerId, Double amount, String idempotencyKey) {
+        if (amount == null || amount <= 0) {
+            throw new BadRequestException("Amount must be positive");
+        }
+        if (idempotencyKey != null) {
+            checkKey(idempotencyKey);
+            PaymentDTO replay = replay(rentalId, payerId, idempotencyKey);
+            if (replay != null) {
+                return replay;
+            }
+        }
+
+        // mock external payment, the ref only has to be unique
+        String paymentRef = "MOCK-" + UUID.randomUUID();
+        PaymentRow paid = idempotencyKey == null
+                ? paymentRepository.payRental(rentalId, payerId, amount, paymentRef)
+                : paymentRepository.payRental(rentalId, payerId, amount, paymentRef, idempotencyKey);
+        if (paid == null) {
+            // a retry racing the first request waits on the rental row and then finds it paid
+            if (idempotencyKey != null) {
+                PaymentDTO replay = replay(rentalId, payerId, idempotencyKey);
+                if (replay != null) {
+                    return replay;
+                }
+            }
+            throw rejection(rentalId, payerId);
+        }
+        evictRental(rentalId);
+
+        PaymentDTO payment = PaymentIdempotencyStore.toDto(paid);
+        if (idempotencyKey != null) {
+            idempotencyStore.remember(payerId, idempotencyKey, payment);
+        }
+        return payment;
+    }
+
+    @Override
+    public PaymentIntentDTO submitPayment(Long rentalId, String payerId, Double amount, String idempotencyKey) {
+        if (amount == null || amount <= 0) {
+            throw new BadRequestException("Amount must be positive");
+        }
+        if (idempotencyKey != null) {
+            checkKey(idempotencyKey);
+            PaymentIntentDTO replay = intentReplay(rentalId, payerId, idempotencyKey);
+            if (replay != null) {
+                return replay;
+            }
+        }
+
+        PaymentIntentRow intent = paymentRepository.submitIntent(rentalId, payerId, amount, idempotencyKey);
+        if (intent == null) {
+            if (idempotencyKey != null) {
+                PaymentIntentDTO replay = intentReplay(rentalId, payerId, idempotencyKey);
+                if (replay != null) {
+                    return replay;
+                }
+            }
+            // a retry without the key, or with a new one, joins the payment already in flight
+            PaymentIntentRow pending = paymentRepository.findPendingIntent(rentalId, payerId);
+            if (pending != null) {
+                return toDto(pending);
+            }
+            throw rejection(rentalId, payerId);
+        }
+        return toDto(intent);
+    }
 
     @Override
-    public Payment createPayment(Long rentalId, String payerId, Double amount) {
+    public PaymentIntentDTO getPaymentIntent(Long intentId, String payerId) {
+        PaymentIntentRow intent = paymentRepository.findIntent(intentId, payerId);
+        if (intent == null) {
+            throw new NotFoundException("Payment not found");
+        }
+        return toDto(intent);
+    }
+
+    private static void checkKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private PaymentDTO replay(Long rentalId, String payerId, String idempotencyKey) {
+        return idempotencyStore.find(payerId, idempotencyKey)
+                .map(payment -> {
+                    if (!payment.getRentalId().equals(rentalId)) {
+                        throw new BadRequestException("Idempotency-Key was already used for another rental");
+                    }
+                    return payment;
+                })
+                .orElse(null);
+    }
+
+    private PaymentIntentDTO intentReplay(Long rentalId, String payerId, String idempotencyKey) {
+        PaymentIntentRow intent = paymentRepository.findIntentByIdempotencyKey(payerId, idempotencyKey);
+        if (intent == null) {
+            return null;
+        }
+        if (!intent.getRentalId().equals(rentalId)) {
+            throw new BadRequestException("Idempotency-Key was already used for another rental");
+        }
+        return toDto(intent);
+    }
+
+    // payRental or submitIntent matched nothing, find out why
+    private RuntimeException rejection(Long rentalId, String payerId) {
         Rental r = rentalRepository.findById(rentalId)
                 .orElseThrow(() -> new NotFoundException("Rental not found"));
 
         if (!r.getBorrowerId().equals(payerId)) {
-            throw new BadRequestException("Only borrower can pay for rental");
+            return new BadRequestException("Only borrower can pay for rental");
         }
+        // createPayment would charge a second time next to the intent the worker is charging
+        if (!Boolean.TRUE.equals(r.getPaid()) && paymentRepository.findPendingIntent(rentalId, payerId) != null) {
+            return new BadRequestException("Rental has a payment in progress");
+        }
+        return new BadRequestException("Rental already paid");
+    }
 
-        if (Boolean.TRUE.equals(r.getPaid())) {
-            throw new BadRequestException("Rental already paid");
+    private void evictRental(Long rentalId) {
+        Cache rentals = cacheManager.getCache(CacheConfig.RENTALS);
+        if (rentals != null) {
+            rentals.evict(rentalId);
         }
+    }
 
-        // mock external payment: create Payment record
-        Payment p = Payment.builder()
-                .rental(r)
-                .amount(amount)
-                .paymentRef("MOCK-" + System.currentTimeMillis())
+    private static PaymentIntentDTO toDto(PaymentIntentRow row) {
+        return PaymentIntentDTO.builder()
+                .id(row.getId())
+                .rentalId(row.getRentalId())
+                .amount(row.getAmount())
+                .status(row.getStatus())
+                .paymentId(row.getPaymentId())
+                .paymentRef(row.getPaymentRef())
+                .failureReason(row.getFailureReason())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
                 .build();
-
-        Payment saved = paymentRepository.save(p);
-
-        // set rental paid
-        r.setPaid(true);
-        rentalRepository.save(r);
-
-        return saved;
     }
 }
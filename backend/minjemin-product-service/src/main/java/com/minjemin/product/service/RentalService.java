@@ -1,5 +1,6 @@
 package com.minjemin.product.service;
 
+import com.minjemin.product.dto.CursorPageDTO;
 import com.minjemin.product.dto.RentalDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,10 +9,10 @@ import java.util.List;
 
 public interface RentalService {
     RentalDTO createRental(RentalDTO dto, String borrowerId, String borrowerName);
-    List<RentalDTO> getMyRentals(String borrowerId, String name, String status);
-    Page<RentalDTO> getMyRentalsPage(String borrowerId, String name, String status, Pageable pageable);
+    List<RentalDTO> createRentals(List<RentalDTO> dtos, String borrowerId, String borrowerName);
+    CursorPageDTO<RentalDTO> getMyRentals(String borrowerId, String name, String status, String cursor, int size);
     Page<RentalDTO> getMyRentalsPageDb(String borrowerId, String name, String status, Pageable pageable);
-    List<RentalDTO> getRequestRentals(String ownerId, String name, String status);
+    CursorPageDTO<RentalDTO> getRequestRentals(String ownerId, String name, String status, String cursor, int size);
 
     RentalDTO approveRental(Long rentalId, String ownerId);
     RentalDTO startRental(Long rentalId, String borrowerId);
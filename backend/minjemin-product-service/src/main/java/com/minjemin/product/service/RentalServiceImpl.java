@@ -1,5 +1,7 @@
 package com.minjemin.product.service;
 
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.dto.CursorPageDTO;
 import com.minjemin.product.dto.RentalDTO;
 import com.minjemin.product.exception.BadRequestException;
 import com.minjemin.product.exception.NotFoundException;
@@ -7,38 +9,52 @@ import com.minjemin.product.mapper.RentalMapper;
 import com.minjemin.product.model.Item;
 import com.minjemin.product.model.Rental;
 import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.repository.ItemAvailability;
 import com.minjemin.product.repository.ItemRepository;
 import com.minjemin.product.repository.RentalRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RentalServiceImpl implements RentalService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final int MAX_BATCH = 100;
+
     private final RentalRepository rentalRepository;
     private final ItemRepository itemRepository;
     private final RentalMapper rentalMapper;
+    private final StatService statService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
     public RentalDTO createRental(RentalDTO dto, String borrowerId, String borrowerName) {
-        // validasi basic
-        if (dto.getStartDate() == null || dto.getEndDate() == null) {
-            throw new BadRequestException("startDate and endDate required");
-        }
-        if (dto.getStartDate().isAfter(dto.getEndDate())) {
-            throw new BadRequestException("startDate must be before or equal endDate");
-        }
+        validateDates(dto);
 
         Item item = itemRepository.findById(dto.getItemId())
                 .orElseThrow(() -> new RuntimeException("item not found"));
@@ -48,101 +64,90 @@ public class RentalServiceImpl implements RentalService {
             throw new BadRequestException("Owner cannot borrow their own item");
         }
 
-        // cek stock
-        if (item.getStock() == null || item.getStock() <= 0) {
-            throw new BadRequestException("Item out of stock");
+        // cek availability for the requested dates
+        ItemAvailability availability = rentalRepository.findAvailability(item.getId(),
+                dto.getStartDate(), dto.getEndDate());
+        if (availability == null || availability.getBooked() >= availability.getUnits()) {
+            throw new BadRequestException("Item is fully booked for the selected dates");
         }
 
-        // total price if not provided
-        if (dto.getTotalPrice() == null) {
-            long days = dto.getEndDate().toEpochDay() - dto.getStartDate().toEpochDay() + 1;
-            dto.setTotalPrice(item.getPricePerDay() * days);
-        }
-
-        Rental rental = Rental.builder()
-                .item(item)
-                .borrowerId(borrowerId)
-                .borrowerName(borrowerName)
-                .startDate(dto.getStartDate())
-                .endDate(dto.getEndDate())
-                .totalPrice(dto.getTotalPrice())
-                .status(RentalStatus.PENDING)
-                .paid(false)
-                .build();
-
-        Rental saved = rentalRepository.save(rental);
+        Rental saved = rentalRepository.save(newRental(item, dto, borrowerId, borrowerName));
+        statService.recordTransition(null, RentalStatus.PENDING);
         return rentalMapper.toDto(saved);
     }
 
     @Override
-    public List<RentalDTO> getMyRentals(String borrowerId, String name, String status) {
-        String normalizedName = (name == null || name.isBlank()) ? null : name.toLowerCase();
-        String normalizedStatus = (status == null || status.isBlank()) ? null : status.toLowerCase();
+    @Transactional
+    public List<RentalDTO> createRentals(List<RentalDTO> dtos, String borrowerId, String borrowerName) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BadRequestException("At least one rental required");
+        }
+        if (dtos.size() > MAX_BATCH) {
+            throw new BadRequestException("At most " + MAX_BATCH + " rentals per request");
+        }
+        for (RentalDTO dto : dtos) {
+            if (dto.getItemId() == null) {
+                throw new BadRequestException("itemId required");
+            }
+            validateDates(dto);
+        }
+
+        // every line's item in one select
+        Set<Long> itemIds = dtos.stream().map(RentalDTO::getItemId).collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Rental> rentals = new ArrayList<>(dtos.size());
+        for (RentalDTO dto : dtos) {
+            Item item = items.get(dto.getItemId());
+            if (item == null) {
+                throw new NotFoundException("Item " + dto.getItemId() + " not found");
+            }
+            if (item.getOwnerId().equals(borrowerId)) {
+                throw new BadRequestException("Owner cannot borrow their own item");
+            }
+            // same overlap probe as createRental, plus the earlier lines of this batch asking for the same item
+            ItemAvailability availability = rentalRepository.findAvailability(item.getId(),
+                    dto.getStartDate(), dto.getEndDate());
+            long inBatch = rentals.stream().filter(rental -> overlaps(rental, item.getId(), dto)).count();
+            if (availability == null || availability.getBooked() + inBatch >= availability.getUnits()) {
+                throw new BadRequestException("Item " + item.getId() + " is fully booked for the selected dates");
+            }
+            rentals.add(newRental(item, dto, borrowerId, borrowerName));
+        }
 
-        return rentalRepository.findByBorrowerId(borrowerId)
-                .stream()
-                .filter(rental -> normalizedName == null
-                        || rental.getItem().getName().toLowerCase().contains(normalizedName))
-                .filter(rental -> normalizedStatus == null
-                        || rental.getStatus().toString().toLowerCase().contains(normalizedStatus))
-                .map(rentalMapper::toDto)
-                .collect(Collectors.toList());
+        // sequence ids let Hibernate send these as one JDBC batch
+        List<Rental> saved = rentalRepository.saveAll(rentals);
+        statService.recordCreation(RentalStatus.PENDING, saved.size());
+        return saved.stream().map(rentalMapper::toDto).collect(Collectors.toList());
     }
 
     @Override
-    public Page<RentalDTO> getMyRentalsPage(String borrowerId, String name, String status, Pageable pageable) {
-        String normalizedName = (name == null || name.isBlank()) ? null : name.toLowerCase();
-        String normalizedStatus = (status == null || status.isBlank()) ? null : status.toLowerCase();
-
-        List<Rental> allRentals = rentalRepository.findByBorrowerId(borrowerId);
-
-        List<RentalDTO> filteredDtos = allRentals.stream()
-                .filter(rental -> normalizedName == null
-                        || rental.getItem().getName().toLowerCase().contains(normalizedName))
-                .filter(rental -> normalizedStatus == null
-                        || rental.getStatus().toString().toLowerCase().contains(normalizedStatus))
-                .map(rentalMapper::toDto)
-                .collect(Collectors.toList());
-
-        int pageSize = pageable.getPageSize();
-        int currentPage = pageable.getPageNumber();
-        int startItem = currentPage * pageSize;
-
-        List<RentalDTO> pageList;
-
-        if (filteredDtos.size() < startItem) {
-            pageList = Collections.emptyList();
-        } else {
-            int toIndex = Math.min(startItem + pageSize, filteredDtos.size());
-            pageList = filteredDtos.subList(startItem, toIndex);
-        }
-
-        return new PageImpl<>(pageList, pageable, filteredDtos.size());
+    public CursorPageDTO<RentalDTO> getMyRentals(String borrowerId, String name, String status,
+                                                 String cursor, int size) {
+        RentalKey after = RentalKey.decode(cursor);
+        return findPage(RentalSpecification.borrowerRentalsAfter(borrowerId, name, parseStatuses(status),
+                after.createdAt(), after.id()), size);
     }
 
     @Override
     public Page<RentalDTO> getMyRentalsPageDb(String borrowerId, String name, String status, Pageable pageable) {
-        Specification<Rental> spec = RentalSpecification.filterRentals(borrowerId, name, status);
+        Specification<Rental> spec = RentalSpecification.filterRentals(borrowerId, name, parseStatuses(status));
         Page<Rental> rentalPage = rentalRepository.findAll(spec, pageable);
         return rentalPage.map(rentalMapper::toDto);
     }
 
     @Override
-    public List<RentalDTO> getRequestRentals(String ownerId, String name, String status) {
-        String normalizedName = (name == null || name.isBlank()) ? null : name.toLowerCase();
-        String normalizedStatus = (status == null || status.isBlank()) ? null : status.toLowerCase();
-
-        return rentalRepository.findByItem_OwnerId(ownerId)
-                .stream()
-                .filter(rental -> normalizedName == null
-                        || rental.getItem().getName().toLowerCase().contains(normalizedName))
-                .filter(rental -> normalizedStatus == null
-                        || rental.getStatus().toString().toLowerCase().contains(normalizedStatus))
-                .map(rentalMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<RentalDTO> getRequestRentals(String ownerId, String name, String status,
+                                                      String cursor, int size) {
+        RentalKey after = RentalKey.decode(cursor);
+        return findPage(RentalSpecification.ownerRentalsAfter(ownerId, name, parseStatuses(status),
+                after.createdAt(), after.id()), size);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RENTALS, key = "#rentalId")
     public RentalDTO approveRental(Long rentalId, String ownerId) {
         Rental r = rentalRepository.findById(rentalId)
                 .orElseThrow(() -> new NotFoundException("Rental not found"));
@@ -156,20 +161,28 @@ public class RentalServiceImpl implements RentalService {
             throw new BadRequestException("Rental must be in PENDING to approve");
         }
 
-        // reduce stock
-        Item item = r.getItem();
-        if (item.getStock() <= 0) throw new BadRequestException("Item out of stock");
-        item.setStock(item.getStock() - 1);
-        if (item.getStock() == 0) item.setAvailable(false);
-        itemRepository.save(item);
+        // approving books the dates only, stock is taken at pickup. The item row lock makes concurrent
+        // approvals of this item count overlaps one after the other
+        Long itemId = r.getItem().getId();
+        itemRepository.lockById(itemId);
 
         r.setStatus(RentalStatus.APPROVED);
         r.setApprovedBy(ownerId);
-        rentalRepository.save(r);
+        rentalRepository.saveAndFlush(r);
+
+        ItemAvailability availability = rentalRepository.findAvailability(itemId, r.getStartDate(), r.getEndDate());
+        if (availability.getBooked() > availability.getUnits()) {
+            throw new BadRequestException("Item is already booked for the selected dates");
+        }
+        itemAvailabilityIndex.book(itemId, r.getStartDate(), r.getEndDate());
+        evictItem(itemId);
+        statService.recordTransition(RentalStatus.PENDING, RentalStatus.APPROVED);
         return rentalMapper.toDto(r);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RENTALS, key = "#rentalId")
     public RentalDTO startRental(Long rentalId, String borrowerId) {
         Rental r = rentalRepository.findById(rentalId)
                 .orElseThrow(() -> new NotFoundException("Rental not found"));
@@ -187,13 +200,24 @@ public class RentalServiceImpl implements RentalService {
             throw new BadRequestException("Rental must be paid before starting");
         }
 
+        // the unit leaves the shelf: reduce stock atomically, never read-modify-write the loaded item
+        Long itemId = r.getItem().getId();
+        if (itemRepository.reserveStock(itemId) == 0) {
+            throw new BadRequestException("Item out of stock");
+        }
+        itemSearchIndex.updateStock(itemId, itemRepository.findStockById(itemId));
+        itemAvailabilityIndex.pickUp(itemId);
+        evictItem(itemId);
+
         r.setStatus(RentalStatus.ONGOING);
         rentalRepository.save(r);
+        statService.recordTransition(RentalStatus.APPROVED, RentalStatus.ONGOING);
         return rentalMapper.toDto(r);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RENTALS, key = "#rentalId")
     public RentalDTO completeRental(Long rentalId, String actorId) {
         Rental r = rentalRepository.findById(rentalId)
                 .orElseThrow(() -> new NotFoundException("Rental not found"));
@@ -209,17 +233,20 @@ public class RentalServiceImpl implements RentalService {
         r.setStatus(RentalStatus.COMPLETED);
 
         // restore stock
-        Item item = r.getItem();
-        item.setStock(item.getStock() + 1);
-        item.setAvailable(true);
-        itemRepository.save(item);
+        Long itemId = r.getItem().getId();
+        itemRepository.releaseStock(itemId);
+        itemSearchIndex.updateStock(itemId, itemRepository.findStockById(itemId));
+        itemAvailabilityIndex.release(itemId, r.getStartDate(), r.getEndDate(), true);
+        evictItem(itemId);
 
         rentalRepository.save(r);
+        statService.recordTransition(RentalStatus.ONGOING, RentalStatus.COMPLETED);
         return rentalMapper.toDto(r);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RENTALS, key = "#rentalId")
     public RentalDTO cancelRental(Long rentalId, String actorId) {
         Rental r = rentalRepository.findById(rentalId)
                 .orElseThrow(() -> new NotFoundException("Rental not found"));
@@ -228,6 +255,7 @@ public class RentalServiceImpl implements RentalService {
         if (r.getStatus() == RentalStatus.PENDING) {
             r.setStatus(RentalStatus.CANCELLED);
             rentalRepository.save(r);
+            statService.recordTransition(RentalStatus.PENDING, RentalStatus.CANCELLED);
             return rentalMapper.toDto(r);
         }
 
@@ -235,16 +263,130 @@ public class RentalServiceImpl implements RentalService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.RENTALS, key = "#id")
     public RentalDTO getById(Long id) {
         return rentalMapper.toDto(rentalRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Rental not found")));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RENTALS, key = "#id")
     public void deleteRentalById(Long id) {
         Rental rental = rentalRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Rental not found"));
 
         rentalRepository.delete(rental);
+        Long itemId = rental.getItem().getId();
+        if (rental.getStatus() == RentalStatus.APPROVED) {
+            itemAvailabilityIndex.release(itemId, rental.getStartDate(), rental.getEndDate(), false);
+            evictItem(itemId);
+        } else if (rental.getStatus() == RentalStatus.ONGOING) {
+            // the picked up unit is not returned to stock, so the item loses it in the index too
+            itemAvailabilityIndex.release(itemId, rental.getStartDate(), rental.getEndDate(), true);
+            itemAvailabilityIndex.putItem(itemId, itemRepository.findStockById(itemId));
+            evictItem(itemId);
+        }
+        statService.recordTransition(rental.getStatus(), null);
+    }
+
+    // stock changes through UPDATE statements, drop the cached ItemDTO (and tell the other nodes, which reload
+    // the item's bookings into their availability index)
+    private void evictItem(Long itemId) {
+        Cache items = cacheManager.getCache(CacheConfig.ITEMS);
+        if (items != null) {
+            items.evict(itemId);
+        }
+    }
+
+    private static void validateDates(RentalDTO dto) {
+        if (dto.getStartDate() == null || dto.getEndDate() == null) {
+            throw new BadRequestException("startDate and endDate required");
+        }
+        if (dto.getStartDate().isAfter(dto.getEndDate())) {
+            throw new BadRequestException("startDate must be before or equal endDate");
+        }
+    }
+
+    private static boolean overlaps(Rental rental, Long itemId, RentalDTO dto) {
+        return rental.getItem().getId().equals(itemId)
+                && !rental.getStartDate().isAfter(dto.getEndDate())
+                && !dto.getStartDate().isAfter(rental.getEndDate());
+    }
+
+    private static Rental newRental(Item item, RentalDTO dto, String borrowerId, String borrowerName) {
+        // total price if not provided
+        Double totalPrice = dto.getTotalPrice();
+        if (totalPrice == null) {
+            long days = dto.getEndDate().toEpochDay() - dto.getStartDate().toEpochDay() + 1;
+            totalPrice = item.getPricePerDay() * days;
+        }
+
+        return Rental.builder()
+                .item(item)
+                .borrowerId(borrowerId)
+                .borrowerName(borrowerName)
+                .startDate(dto.getStartDate())
+                .endDate(dto.getEndDate())
+                .totalPrice(totalPrice)
+                .status(RentalStatus.PENDING)
+                .paid(false)
+                .build();
+    }
+
+    private CursorPageDTO<RentalDTO> findPage(Specification<Rental> spec, int size) {
+        int pageSize = Cursors.pageSize(size);
+
+        // fetch one extra row to know whether another page exists
+        List<Rental> rentals = rentalRepository.findBy(spec, query -> query
+                .sortBy(NEWEST_FIRST)
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasNext = rentals.size() > pageSize;
+        List<Rental> page = hasNext ? rentals.subList(0, pageSize) : rentals;
+        String nextCursor = null;
+        if (hasNext) {
+            Rental last = page.get(page.size() - 1);
+            nextCursor = Cursors.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageDTO.<RentalDTO>builder()
+                .content(page.stream().map(rentalMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // status=PENDING,APPROVED -> exact enum values, case insensitive
+    static Set<RentalStatus> parseStatuses(String status) {
+        if (status == null || status.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<RentalStatus> statuses = EnumSet.noneOf(RentalStatus.class);
+        for (String value : status.split(",")) {
+            if (value.isBlank()) {
+                continue;
+            }
+            try {
+                statuses.add(RentalStatus.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid status: " + value.trim());
+            }
+        }
+        return statuses;
+    }
+
+    private record RentalKey(LocalDateTime createdAt, Long id) {
+        static RentalKey decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return new RentalKey(null, null);
+            }
+            String[] keys = Cursors.decode(cursor, 2);
+            try {
+                return new RentalKey(LocalDateTime.parse(keys[0]), Long.parseLong(keys[1]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
     }
 }
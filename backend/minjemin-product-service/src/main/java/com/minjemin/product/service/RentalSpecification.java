@@ -2,15 +2,21 @@ package com.minjemin.product.service;
 
 import com.minjemin.product.model.Item;
 import com.minjemin.product.model.Rental;
+import com.minjemin.product.model.RentalStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class RentalSpecification {
-    public static Specification<Rental> filterRentals(String borrowerId, String name, String status) {
+    public static Specification<Rental> filterRentals(String borrowerId, String name, Set<RentalStatus> statuses) {
 
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -22,24 +28,94 @@ public class RentalSpecification {
             if (name != null && !name.isBlank()) {
                 // Melakukan JOIN ke entitas Item
                 Join<Rental, Item> itemJoin = root.join("item");
-                String normalizedName = "%" + name.toLowerCase() + "%";
-                // WHERE LOWER(item.name) LIKE '%input%'
-                predicates.add(criteriaBuilder.like(
-                        criteriaBuilder.lower(itemJoin.get("name")),
-                        normalizedName
-                ));
+                addNameFilter(predicates, criteriaBuilder, itemJoin, name);
             }
 
             // Filter based on Status
-            if (status != null && !status.isBlank()) {
-                String normalizedStatus = "%" + status.toLowerCase() + "%";
-                predicates.add(criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("status").as(String.class)),
-                        normalizedStatus
-                ));
-            }
+            addStatusFilter(predicates, criteriaBuilder, root, statuses);
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Keyset page for the borrower view, ORDER BY created_at DESC, id DESC
+    // uses idx_rentals_borrower_id_created_at_id
+    public static Specification<Rental> borrowerRentalsAfter(String borrowerId, String name, Set<RentalStatus> statuses,
+                                                             LocalDateTime afterCreatedAt, Long afterId) {
+
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Join<Rental, Item> itemJoin = fetchItem(root, query);
+
+            predicates.add(criteriaBuilder.equal(root.get("borrowerId"), borrowerId));
+            addNameFilter(predicates, criteriaBuilder, itemJoin, name);
+            addStatusFilter(predicates, criteriaBuilder, root, statuses);
+            addKeyset(predicates, criteriaBuilder, root, afterCreatedAt, afterId);
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Keyset page for the owner inbox, ORDER BY created_at DESC, id DESC
+    // uses idx_rentals_owner_id_created_at_id
+    public static Specification<Rental> ownerRentalsAfter(String ownerId, String name, Set<RentalStatus> statuses,
+                                                          LocalDateTime afterCreatedAt, Long afterId) {
+
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Join<Rental, Item> itemJoin = fetchItem(root, query);
+
+            predicates.add(criteriaBuilder.equal(root.get("ownerId"), ownerId));
+            addNameFilter(predicates, criteriaBuilder, itemJoin, name);
+            addStatusFilter(predicates, criteriaBuilder, root, statuses);
+            addKeyset(predicates, criteriaBuilder, root, afterCreatedAt, afterId);
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    @SuppressWarnings("unchecked")
+    private static Join<Rental, Item> fetchItem(Root<Rental> root, CriteriaQuery<?> query) {
+        // count queries can't fetch, a plain join is enough there
+        if (Long.class == query.getResultType() || long.class == query.getResultType()) {
+            return root.join("item");
+        }
+        return (Join<Rental, Item>) root.<Rental, Item>fetch("item");
+    }
+
+    private static void addNameFilter(List<Predicate> predicates, CriteriaBuilder criteriaBuilder,
+                                      Join<Rental, Item> itemJoin, String name) {
+        if (name != null && !name.isBlank()) {
+            // WHERE LOWER(item.name) LIKE '%input%'
+            predicates.add(criteriaBuilder.like(
+                    criteriaBuilder.lower(itemJoin.get("name")),
+                    ItemSpecification.containsPattern(name),
+                    ItemSpecification.LIKE_ESCAPE
+            ));
+        }
+    }
+
+    private static void addStatusFilter(List<Predicate> predicates, CriteriaBuilder criteriaBuilder,
+                                        Root<Rental> root, Set<RentalStatus> statuses) {
+        // exact match on the raw column, WHERE status IN (...) filters rows while walking the keyset index
+        if (statuses != null && !statuses.isEmpty()) {
+            predicates.add(root.get("status").in(statuses));
+        }
+    }
+
+    private static void addKeyset(List<Predicate> predicates, CriteriaBuilder criteriaBuilder,
+                                  Root<Rental> root, LocalDateTime afterCreatedAt, Long afterId) {
+        if (afterCreatedAt == null || afterId == null) {
+            return;
+        }
+        // (created_at, id) < (:createdAt, :id); the redundant <= keeps it an index range condition
+        predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), afterCreatedAt));
+        predicates.add(criteriaBuilder.or(
+                criteriaBuilder.lessThan(root.get("createdAt"), afterCreatedAt),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("createdAt"), afterCreatedAt),
+                        criteriaBuilder.lessThan(root.get("id"), afterId)
+                )
+        ));
+    }
 }
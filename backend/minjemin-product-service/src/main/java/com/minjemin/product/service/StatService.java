@@ -1,9 +1,19 @@
 package com.minjemin.product.service;
 
+import com.minjemin.product.dto.ItemDTO;
 import com.minjemin.product.dto.ProductStatDTO;
+import com.minjemin.product.dto.RentalDTO;
 import com.minjemin.product.dto.RentalStatDTO;
+import com.minjemin.product.model.RentalStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 public interface StatService {
     ProductStatDTO totalProduct();
+    Page<ItemDTO> getProductData(Pageable pageable);
     RentalStatDTO totalRental();
+    Page<RentalDTO> getRentalData(Pageable pageable);
+    void recordTransition(RentalStatus from, RentalStatus to);
+    void recordCreation(RentalStatus status, long count);
+    void recordRemoval(RentalStatus status, long count);
 }
@@ -6,49 +6,122 @@ import com.minjemin.product.dto.RentalDTO;
 import com.minjemin.product.dto.RentalStatDTO;
 import com.minjemin.product.mapper.ItemMapper;
 import com.minjemin.product.mapper.RentalMapper;
-import com.minjemin.product.model.Item;
-import com.minjemin.product.model.Rental;
+import com.minjemin.product.model.RentalStat;
 import com.minjemin.product.model.RentalStatus;
 import com.minjemin.product.repository.ItemRepository;
+import com.minjemin.product.repository.ItemStatSummary;
 import com.minjemin.product.repository.RentalRepository;
+import com.minjemin.product.repository.RentalStatRepository;
+import com.minjemin.product.repository.RentalStatusCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 public class StatServiceImpl implements StatService {
 
+    static final String TRANSITIONS = "rentals.transitions";
+    // tag value for the missing side of a creation or deletion
+    private static final String NONE = "NONE";
+
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
     private final RentalRepository rentalRepository;
     private final RentalMapper rentalMapper;
+    private final RentalStatRepository rentalStatRepository;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public ProductStatDTO totalProduct() {
-        List<Item> items = itemRepository.findAll();
-        List<ItemDTO> itemDTOS = items.stream().map(itemMapper::toDto).toList();
+        ItemStatSummary summary = itemRepository.summarize();
         return ProductStatDTO.builder()
-                .totalProduct(items.size())
-                .dataProducts(itemDTOS)
+                .totalProduct(summary.getTotalProduct())
+                .totalStock(summary.getTotalStock())
+                .availableProduct(summary.getAvailableProduct())
+                .unavailableProduct(summary.getTotalProduct() - summary.getAvailableProduct())
+                .averagePricePerDay(summary.getAveragePricePerDay())
                 .build();
     }
 
     @Override
-    public RentalStatDTO totalRental() {
-        List<Rental> rentals = rentalRepository.findAll();
-        List<RentalDTO> rentalDTOS = rentals.stream().map(rentalMapper::toDto).toList();
+    public Page<ItemDTO> getProductData(Pageable pageable) {
+        return itemRepository.findAll(pageable).map(itemMapper::toDto);
+    }
 
-        Map<RentalStatus, Long> statusCount = rentals.stream()
-                .collect(Collectors.groupingBy(Rental::getStatus, Collectors.counting()));
+    @Override
+    public RentalStatDTO totalRental() {
+        // counters are maintained on every rental transition, striped over RentalStat.SLOTS rows per status
+        Map<RentalStatus, Long> statusCount = new EnumMap<>(RentalStatus.class);
+        long total = 0;
+        for (RentalStatusCount stat : rentalStatRepository.sumByStatus()) {
+            if (stat.getTotal() > 0) {
+                statusCount.put(stat.getStatus(), stat.getTotal());
+            }
+            total += stat.getTotal();
+        }
 
         return RentalStatDTO.builder()
-                .totalRental(rentals.size())
-                .dataRentals(rentalDTOS)
+                .totalRental(total)
                 .statuses(statusCount)
                 .build();
     }
+
+    @Override
+    public Page<RentalDTO> getRentalData(Pageable pageable) {
+        return rentalRepository.findAll(pageable).map(rentalMapper::toDto);
+    }
+
+    @Override
+    @Transactional
+    public void recordTransition(RentalStatus from, RentalStatus to) {
+        if (from == to) {
+            return;
+        }
+        // both rows in the same slot, so transactions still lock statuses in lifecycle order
+        int slot = slot();
+        if (from != null) {
+            rentalStatRepository.increment(from, slot, -1);
+        }
+        if (to != null) {
+            rentalStatRepository.increment(to, slot, 1);
+        }
+        countTransition(from, to, 1);
+    }
+
+    @Override
+    @Transactional
+    public void recordCreation(RentalStatus status, long count) {
+        rentalStatRepository.increment(status, slot(), count);
+        countTransition(null, status, count);
+    }
+
+    @Override
+    @Transactional
+    public void recordRemoval(RentalStatus status, long count) {
+        rentalStatRepository.increment(status, slot(), -count);
+    }
+
+    // a random slot spreads concurrent transactions over the status rows instead of queueing them on one
+    private static int slot() {
+        return ThreadLocalRandom.current().nextInt(RentalStat.SLOTS);
+    }
+
+    // rentals.transitions{from,to}, counted once the transaction commits so rolled back changes don't show up
+    private void countTransition(RentalStatus from, RentalStatus to, long count) {
+        Counter counter = Counter.builder(TRANSITIONS)
+                .description("Rental status transitions")
+                .tag("from", from == null ? NONE : from.name())
+                .tag("to", to == null ? NONE : to.name())
+                .register(meterRegistry);
+        AfterCommit.run(() -> counter.increment(count));
+    }
 }
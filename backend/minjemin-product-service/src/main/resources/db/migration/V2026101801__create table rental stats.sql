@@ -0,0 +1,13 @@
+CREATE TABLE public.rental_stats
+(
+    status varchar(255) NOT NULL,
+    total  int8         NOT NULL DEFAULT 0,
+    CONSTRAINT rental_stats_pkey PRIMARY KEY (status)
+);
+
+-- seed counters from existing rentals, one row per status
+INSERT INTO public.rental_stats (status, total)
+SELECT s.status, count(r.id)
+FROM (VALUES ('PENDING'), ('APPROVED'), ('ONGOING'), ('COMPLETED'), ('CANCELLED')) AS s(status)
+         LEFT JOIN public.rentals r ON r.status = s.status
+GROUP BY s.status;
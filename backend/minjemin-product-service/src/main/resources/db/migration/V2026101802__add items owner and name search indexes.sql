@@ -0,0 +1,10 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- substring search on LOWER(name) LIKE '%x%'
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON public.items USING gin (lower("name") gin_trgm_ops);
+
+-- owner listing with price range filter
+CREATE INDEX IF NOT EXISTS idx_items_owner_id_price_per_day ON public.items (owner_id, price_per_day);
+
+-- owner listing keyset pagination (owner_id = ? AND id > ? ORDER BY id)
+CREATE INDEX IF NOT EXISTS idx_items_owner_id_id ON public.items (owner_id, id);
@@ -0,0 +1,12 @@
+UPDATE public.rentals
+SET created_at = now()
+WHERE created_at IS NULL;
+
+ALTER TABLE public.rentals
+    ALTER COLUMN created_at SET NOT NULL;
+
+-- borrower view: borrower_id = ? ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_rentals_borrower_id_created_at_id ON public.rentals (borrower_id, created_at DESC, id DESC);
+
+-- owner inbox: items of the owner joined to their rentals, same ordering
+CREATE INDEX IF NOT EXISTS idx_rentals_item_id_created_at_id ON public.rentals (item_id, created_at DESC, id DESC);
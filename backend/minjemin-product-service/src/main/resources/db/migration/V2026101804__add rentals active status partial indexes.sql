@@ -0,0 +1,4 @@
+-- status filters are exact matches now (status IN (...)). The keyset indexes already order every status filter,
+-- so only the per-item "still active?" lookups get a partial index of the hot statuses.
+CREATE INDEX IF NOT EXISTS idx_rentals_active_item_id_status ON public.rentals (item_id, status)
+    WHERE status IN ('PENDING', 'APPROVED', 'ONGOING');
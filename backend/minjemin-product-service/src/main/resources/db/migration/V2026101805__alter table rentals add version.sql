@@ -0,0 +1,2 @@
+ALTER TABLE public.rentals
+    ADD version int8 NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- booking overlap probe: item_id = ? AND daterange(start_date, end_date, '[]') && daterange(?, ?, '[]')
+-- an EXCLUDE constraint would forbid any overlap, but items with stock > 1 may be booked concurrently,
+-- so overlaps are counted against the item's units instead
+CREATE INDEX IF NOT EXISTS idx_rentals_active_item_id_period ON public.rentals
+    USING gist (item_id, daterange(start_date, end_date, '[]'))
+    WHERE status IN ('APPROVED', 'ONGOING');
@@ -0,0 +1,14 @@
+-- Hibernate can't batch inserts into IDENTITY columns, so rentals move to a sequence allocated 50 ids at a time
+-- (pooled optimizer, matches allocationSize on the entity). The sequence starts one block above the current max id
+-- so pooled ranges never hit existing rows.
+ALTER TABLE public.rentals ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE public.rentals_seq INCREMENT BY 50 OWNED BY public.rentals.id;
+SELECT setval('public.rentals_seq', (SELECT coalesce(max(id), 0) + 50 FROM public.rentals), false);
+ALTER TABLE public.rentals ALTER COLUMN id SET DEFAULT nextval('public.rentals_seq');
+
+-- Payments are only inserted by native statements (PaymentRepository), where the column default calls nextval
+-- once per row, so their sequence steps by one (allocationSize = 1 on the entity).
+ALTER TABLE public.payments ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE public.payments_seq INCREMENT BY 1 OWNED BY public.payments.id;
+SELECT setval('public.payments_seq', (SELECT coalesce(max(id), 0) + 1 FROM public.payments), false);
+ALTER TABLE public.payments ALTER COLUMN id SET DEFAULT nextval('public.payments_seq');
@@ -0,0 +1,20 @@
+-- Idempotency-Key of POST /payments/rental/{id}, scoped to the payer. A replay is answered from here
+-- (behind an in-memory LRU) without touching rentals. Rows older than the key ttl are purged by the service.
+CREATE TABLE public.payment_idempotency_keys
+(
+    payer_id        varchar(255) NOT NULL,
+    idempotency_key varchar(255) NOT NULL,
+    rental_id       int8         NOT NULL,
+    payment_id      int8         NOT NULL,
+    created_at      timestamp(6) NOT NULL DEFAULT localtimestamp,
+    CONSTRAINT payment_idempotency_keys_pkey PRIMARY KEY (payer_id, idempotency_key)
+);
+
+CREATE INDEX idx_payment_idempotency_keys_created_at ON public.payment_idempotency_keys (created_at);
+
+-- MOCK-<millis> refs could collide under concurrency, keep the existing duplicates apart and make refs unique
+UPDATE public.payments p
+SET payment_ref = p.payment_ref || '-' || p.id
+WHERE EXISTS (SELECT 1 FROM public.payments o WHERE o.payment_ref = p.payment_ref AND o.id < p.id);
+
+CREATE UNIQUE INDEX payments_payment_ref_key ON public.payments (payment_ref);
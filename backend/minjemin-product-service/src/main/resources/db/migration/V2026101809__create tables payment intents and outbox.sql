@@ -0,0 +1,37 @@
+-- Asynchronous payments (POST /payments). The request only records an intent and its outbox row in one statement;
+-- PaymentOutboxWorker on any node claims outbox rows, calls the gateway and settles the intent.
+CREATE TABLE public.payment_intents
+(
+    id              int8 GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    rental_id       int8         NOT NULL,
+    payer_id        varchar(255) NOT NULL,
+    amount          float8       NOT NULL,
+    status          varchar(20)  NOT NULL,
+    idempotency_key varchar(255) NULL,
+    payment_id      int8         NULL,
+    failure_reason  varchar(255) NULL,
+    created_at      timestamp(6) NOT NULL DEFAULT localtimestamp,
+    updated_at      timestamp(6) NOT NULL DEFAULT localtimestamp,
+    CONSTRAINT payment_intents_pkey PRIMARY KEY (id),
+    CONSTRAINT payment_intents_rental_fk FOREIGN KEY (rental_id) REFERENCES public.rentals (id),
+    CONSTRAINT payment_intents_payment_fk FOREIGN KEY (payment_id) REFERENCES public.payments (id)
+);
+
+-- one intent in flight per rental, and Idempotency-Key scoped to the payer like payment_idempotency_keys
+CREATE UNIQUE INDEX payment_intents_pending_rental_key ON public.payment_intents (rental_id) WHERE status = 'PENDING';
+CREATE UNIQUE INDEX payment_intents_idempotency_key ON public.payment_intents (payer_id, idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
+
+-- Work queue. available_at is both the retry time and the claim lease: a worker pushes it past the lease when it
+-- claims a row and deletes the row when the intent is settled, so rows of a crashed worker come back on their own.
+CREATE TABLE public.payment_outbox
+(
+    id           int8 GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    intent_id    int8         NOT NULL,
+    attempts     int4         NOT NULL DEFAULT 0,
+    available_at timestamp(6) NOT NULL DEFAULT localtimestamp,
+    CONSTRAINT payment_outbox_pkey PRIMARY KEY (id),
+    CONSTRAINT payment_outbox_intent_fk FOREIGN KEY (intent_id) REFERENCES public.payment_intents (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_payment_outbox_available_at ON public.payment_outbox (available_at, id);
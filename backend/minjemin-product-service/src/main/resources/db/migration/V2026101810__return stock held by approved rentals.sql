@@ -0,0 +1,7 @@
+-- Stock is now taken when a rental is picked up (ONGOING), not when it is approved.
+-- APPROVED rentals took their unit under the old rule, give it back so the pickup does not take it twice.
+UPDATE public.items i
+SET stock     = i.stock + a.approved,
+    available = true
+FROM (SELECT item_id, count(*) AS approved FROM public.rentals WHERE status = 'APPROVED' GROUP BY item_id) a
+WHERE a.item_id = i.id;
@@ -0,0 +1,14 @@
+-- owner inbox: owner_id = ? ORDER BY created_at DESC, id DESC straight off one index, without joining items first.
+-- An item never changes owner, so the copy on the rental stays correct.
+ALTER TABLE public.rentals
+    ADD owner_id varchar(255);
+
+UPDATE public.rentals r
+SET owner_id = i.owner_id
+FROM public.items i
+WHERE i.id = r.item_id;
+
+ALTER TABLE public.rentals
+    ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_rentals_owner_id_created_at_id ON public.rentals (owner_id, created_at DESC, id DESC);
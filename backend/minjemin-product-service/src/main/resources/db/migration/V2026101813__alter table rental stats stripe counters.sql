@@ -0,0 +1,17 @@
+-- Every rental transition bumps its status counters inside the caller's transaction, so one row per status made
+-- all transitions of that status wait on each other. Each status now has 16 slots, a transaction bumps one slot
+-- picked at random and readers sum them.
+ALTER TABLE public.rental_stats
+    ADD slot int4 NOT NULL DEFAULT 0;
+
+ALTER TABLE public.rental_stats
+    DROP CONSTRAINT rental_stats_pkey;
+
+ALTER TABLE public.rental_stats
+    ADD CONSTRAINT rental_stats_pkey PRIMARY KEY (status, slot);
+
+-- the existing totals stay in slot 0
+INSERT INTO public.rental_stats (status, slot, total)
+SELECT s.status, g.slot, 0
+FROM (SELECT status FROM public.rental_stats) s
+         CROSS JOIN generate_series(1, 15) AS g(slot);
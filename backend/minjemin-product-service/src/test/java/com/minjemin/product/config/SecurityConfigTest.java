@@ -0,0 +1,137 @@
+package com.minjemin.product.config;
+
+import com.minjemin.product.security.KeycloakAuthorities;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecurityConfigTest {
+
+    private static final String ISSUER = "http://localhost/realms/minjemin";
+
+    private final SecurityConfig securityConfig = new SecurityConfig();
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private RSAKey rsaKey;
+    private HttpServer jwksServer;
+
+    @BeforeEach
+    void startJwksServer() throws Exception {
+        rsaKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        byte[] body = new JWKSet(rsaKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jwksServer.createContext("/certs", exchange -> {
+            jwksRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        jwksServer.start();
+    }
+
+    @AfterEach
+    void stopJwksServer() {
+        jwksServer.stop(0);
+    }
+
+    @Test
+    void prewarmedKeysDecodeTokensWithoutAnotherFetch() throws Exception {
+        JWKSource<SecurityContext> jwkSource = securityConfig.jwkSource(
+                "http://localhost:" + jwksServer.getAddress().getPort() + "/certs",
+                Duration.ofMinutes(15), Duration.ofMinutes(1));
+
+        assertEquals(1, SecurityConfig.prewarm(jwkSource));
+        assertEquals(1, jwksRequests.get());
+
+        JwtDecoder jwtDecoder = securityConfig.jwtDecoder(jwkSource, ISSUER);
+        Jwt first = jwtDecoder.decode(token("a"));
+        jwtDecoder.decode(token("b"));
+
+        assertEquals(1, jwksRequests.get());
+        assertTrue(KeycloakAuthorities.extract(first).contains(new SimpleGrantedAuthority("ROLE_admin-role")));
+    }
+
+    @Test
+    void authoritiesAreConvertedOncePerToken() {
+        AtomicInteger conversions = new AtomicInteger();
+        CachingJwtGrantedAuthoritiesConverter converter = new CachingJwtGrantedAuthoritiesConverter(jwt -> {
+            conversions.incrementAndGet();
+            return KeycloakAuthorities.extract(jwt);
+        }, 100);
+
+        Collection<GrantedAuthority> first = converter.convert(jwt("a", Instant.now().plusSeconds(60)));
+        Collection<GrantedAuthority> again = converter.convert(jwt("a", Instant.now().plusSeconds(60)));
+        converter.convert(jwt("b", Instant.now().plusSeconds(60)));
+
+        assertSame(first, again);
+        assertEquals(2, conversions.get());
+    }
+
+    @Test
+    void cachedAuthoritiesExpireWithTheToken() {
+        AtomicInteger conversions = new AtomicInteger();
+        CachingJwtGrantedAuthoritiesConverter converter = new CachingJwtGrantedAuthoritiesConverter(jwt -> {
+            conversions.incrementAndGet();
+            return List.of();
+        }, 100);
+
+        converter.convert(jwt("expired", Instant.now().minusSeconds(1)));
+        converter.convert(jwt("expired", Instant.now().minusSeconds(1)));
+
+        assertEquals(2, conversions.get());
+    }
+
+    private String token(String jti) throws Exception {
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).type(JOSEObjectType.JWT).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(ISSUER)
+                        .subject("user-1")
+                        .jwtID(jti)
+                        .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                        .claim("realm_access", Map.of("roles", List.of("admin-role")))
+                        .build());
+        jwt.sign(new RSASSASigner(rsaKey));
+        return jwt.serialize();
+    }
+
+    private static Jwt jwt(String jti, Instant expiresAt) {
+        return Jwt.withTokenValue("token-" + jti)
+                .header("alg", "RS256")
+                .jti(jti)
+                .issuedAt(expiresAt.minusSeconds(300))
+                .expiresAt(expiresAt)
+                .claim("realm_access", Map.of("roles", List.of("admin-role")))
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.minjemin.product.config;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Fails the test when its body prepares more SQL statements than declared.
+// @BeforeEach setup is not counted, the context needs SqlBudgetConfig so Hibernate reports the statements.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+    int statements();
+}
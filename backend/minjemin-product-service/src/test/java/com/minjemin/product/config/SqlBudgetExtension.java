@@ -0,0 +1,41 @@
+package com.minjemin.product.config;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatementRecorder.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementRecorder.Recording recording = SqlStatementRecorder.stop();
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        if (!SqlStatementRecorder.isInstalled()) {
+            fail("SQL statements are not being recorded, import SqlBudgetConfig into the test context");
+        }
+        int budget = budget(context);
+        if (recording.statementCount() > budget) {
+            StringBuilder message = new StringBuilder()
+                    .append(recording.statementCount()).append(" SQL statements, budget is ").append(budget);
+            recording.statements().forEach((sql, times) -> message.append("\n  ").append(times).append("x ").append(sql));
+            fail(message.toString());
+        }
+    }
+
+    private static int budget(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), SqlBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), SqlBudget.class))
+                .map(SqlBudget::statements)
+                .orElseThrow();
+    }
+}
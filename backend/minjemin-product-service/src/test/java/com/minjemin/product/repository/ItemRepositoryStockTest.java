@@ -0,0 +1,126 @@
+package com.minjemin.product.repository;
+
+import com.minjemin.product.model.Item;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Concurrent pickups of one popular item: the conditional UPDATE must never oversell
+// and neither may the SELECT ... FOR UPDATE then save alternative it replaced.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class ItemRepositoryStockTest {
+
+    private static final int STOCK = 500;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        itemId = itemRepository.save(Item.builder()
+                .name("Popular Tent")
+                .pricePerDay(1000d)
+                .stock(STOCK)
+                .available(true)
+                .ownerId("owner456")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void reserveStock_NeverOversellsUnderContention() throws Exception {
+        hammer(() -> transactionTemplate.execute(status -> itemRepository.reserveStock(itemId) == 1));
+
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        assertEquals(0, item.getStock());
+        assertFalse(item.getAvailable());
+    }
+
+    @Test
+    void pessimisticLock_Baseline() throws Exception {
+        hammer(() -> transactionTemplate.execute(status -> {
+            Item item = entityManager.find(Item.class, itemId, LockModeType.PESSIMISTIC_WRITE);
+            if (item.getStock() <= 0) {
+                return false;
+            }
+            item.setStock(item.getStock() - 1);
+            item.setAvailable(item.getStock() > 0);
+            return true;
+        }));
+
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        assertEquals(0, item.getStock());
+    }
+
+    // runs THREADS * ATTEMPTS_PER_THREAD reservations (more than STOCK) and checks exactly STOCK succeeded
+    private void hammer(Supplier<Boolean> reserve) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tasks.add(() -> {
+                    int reserved = 0;
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        if (Boolean.TRUE.equals(reserve.get())) reserved++;
+                    }
+                    return reserved;
+                });
+            }
+
+            int reserved = 0;
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                reserved += future.get();
+            }
+
+            assertEquals(STOCK, reserved);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.minjemin.product.repository;
+
+import com.minjemin.product.mapper.RentalMapperImpl;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.Rental;
+import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.service.RentalSpecification;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Flyway scripts are Postgres specific, the H2 schema is generated from the entities instead
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class RentalRepositoryTest {
+
+    private static final String BORROWER_ID = "borrower123";
+    private static final String OWNER_ID = "owner456";
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    private final RentalMapperImpl rentalMapper = new RentalMapperImpl();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // 3 distinct items, 2 rentals each
+        for (int i = 0; i < 3; i++) {
+            Item item = entityManager.persist(Item.builder()
+                    .name("Item " + i)
+                    .pricePerDay(1000d)
+                    .stock(5)
+                    .available(true)
+                    .ownerId(OWNER_ID)
+                    .build());
+            for (int j = 0; j < 2; j++) {
+                entityManager.persist(Rental.builder()
+                        .item(item)
+                        .borrowerId(BORROWER_ID)
+                        .startDate(LocalDate.now())
+                        .endDate(LocalDate.now().plusDays(1))
+                        .status(RentalStatus.PENDING)
+                        .paid(false)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllBySpecification_LoadsItemsInSameStatement() {
+        // page smaller than the result so the count query runs as well
+        rentalRepository.findAll(RentalSpecification.filterRentals(BORROWER_ID, "item", null), PageRequest.of(0, 4))
+                .map(rentalMapper::toDto);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllPaged_LoadsItemsInSameStatement() {
+        rentalRepository.findAll(PageRequest.of(0, 4)).map(rentalMapper::toDto);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void filterRentals_MatchesExactStatuses() {
+        Rental approved = rentalRepository.findAll(RentalSpecification.filterRentals(BORROWER_ID, null, null),
+                PageRequest.of(0, 1)).getContent().get(0);
+        approved.setStatus(RentalStatus.APPROVED);
+        rentalRepository.saveAndFlush(approved);
+
+        assertEquals(1, rentalRepository.findAll(RentalSpecification.filterRentals(BORROWER_ID, null,
+                EnumSet.of(RentalStatus.APPROVED)), PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(6, rentalRepository.findAll(RentalSpecification.filterRentals(BORROWER_ID, null,
+                EnumSet.of(RentalStatus.PENDING, RentalStatus.APPROVED)), PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, rentalRepository.findAll(RentalSpecification.filterRentals(BORROWER_ID, null,
+                EnumSet.of(RentalStatus.ONGOING)), PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void filterRentals_MatchesNameWildcardsLiterally() {
+        Item discounted = entityManager.persist(Item.builder()
+                .name("Tent_50%")
+                .pricePerDay(1000d)
+                .stock(5)
+                .available(true)
+                .ownerId(OWNER_ID)
+                .build());
+        entityManager.persist(Rental.builder()
+                .item(discounted)
+                .borrowerId(BORROWER_ID)
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusDays(1))
+                .status(RentalStatus.PENDING)
+                .paid(false)
+                .build());
+        entityManager.flush();
+
+        assertEquals(1, rentalRepository.findAll(RentalSpecification.filterRentals(BORROWER_ID, "%", null),
+                PageRequest.of(0, 10)).getTotalElements());
+        // an unescaped _ would match the space in "item 0"
+        assertEquals(0, rentalRepository.findAll(RentalSpecification.filterRentals(BORROWER_ID, "item_", null),
+                PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void ownerRentalsAfter_WalksPagesNewestFirstInOneStatementEach() {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        List<Rental> firstPage = rentalRepository.findBy(
+                RentalSpecification.ownerRentalsAfter(OWNER_ID, null, null, null, null),
+                query -> query.sortBy(newestFirst).limit(4).all());
+        firstPage.forEach(rentalMapper::toDto);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Rental last = firstPage.get(firstPage.size() - 1);
+        List<Rental> secondPage = rentalRepository.findBy(
+                RentalSpecification.ownerRentalsAfter(OWNER_ID, null, null, last.getCreatedAt(), last.getId()),
+                query -> query.sortBy(newestFirst).limit(4).all());
+
+        assertEquals(4, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertTrue(secondPage.stream().noneMatch(rental -> firstPage.stream()
+                .anyMatch(seen -> seen.getId().equals(rental.getId()))));
+    }
+}
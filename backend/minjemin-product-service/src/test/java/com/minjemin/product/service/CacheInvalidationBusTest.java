@@ -0,0 +1,105 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.MinjeminProductServiceApplication;
+import com.minjemin.product.dto.ItemDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CacheInvalidationBusTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CacheInvalidationBus bus = new CacheInvalidationBus(new DataSourceProperties(), jdbcTemplate,
+            mock(ApplicationEventPublisher.class), Duration.ofMillis(50), 3);
+
+    @Test
+    void flush_CoalescesBurstIntoOneNotify() {
+        bus.publish("items", 1L);
+        bus.publish("items", 1L);
+        bus.publish("items", 2L);
+        bus.publish("rentals", 10L);
+        bus.flush();
+        bus.flush();
+
+        List<String> payloads = notified();
+        assertEquals(1, payloads.size());
+        assertEquals(Map.of("items", Set.of("1", "2"), "rentals", Set.of("10")),
+                CacheInvalidationBus.decode("other-node", payloads.get(0)));
+        // a node ignores its own messages
+        String nodeId = payloads.get(0).substring(0, payloads.get(0).indexOf('|'));
+        assertNull(CacheInvalidationBus.decode(nodeId, payloads.get(0)));
+    }
+
+    @Test
+    void flush_TooManyKeysBecomesEvictAll() {
+        for (long id = 1; id <= 4; id++) {
+            bus.publish("items", id);
+        }
+        bus.flush();
+
+        assertEquals(Map.of("items", Set.of("*")), CacheInvalidationBus.decode("other-node", notified().get(0)));
+    }
+
+    @Test
+    void encode_SplitsAtPayloadLimit() {
+        Set<String> keys = IntStream.range(0, 2000).mapToObj(i -> String.valueOf(1_000_000 + i)).collect(Collectors.toSet());
+
+        List<String> payloads = CacheInvalidationBus.encode("node", Map.of("items", keys));
+
+        assertTrue(payloads.size() > 1);
+        assertTrue(payloads.stream().allMatch(payload -> payload.length() < 8000));
+        assertEquals(keys, payloads.stream()
+                .flatMap(payload -> CacheInvalidationBus.decode("other-node", payload).get("items").stream())
+                .collect(Collectors.toSet()));
+    }
+
+    // Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=CacheInvalidationBusTest -Dpostgres=true
+    @Test
+    @EnabledIfSystemProperty(named = "postgres", matches = "true")
+    void twoNodes_UpdateOnOneEvictsTheOther() throws InterruptedException {
+        try (ConfigurableApplicationContext nodeA = startNode(); ConfigurableApplicationContext nodeB = startNode()) {
+            ItemService itemsA = nodeA.getBean(ItemService.class);
+            ItemService itemsB = nodeB.getBean(ItemService.class);
+
+            ItemDTO created = itemsA.createItem(ItemDTO.builder().name("Tent").pricePerDay(1000d).stock(1).build(), "owner");
+            assertEquals("Tent", itemsB.getItemById(created.getId()).getName()); // now cached on B
+
+            itemsA.updateItemById(created.getId(), created.toBuilder().name("Tent XL").build());
+
+            String name = null;
+            for (int i = 0; i < 50 && !"Tent XL".equals(name); i++) {
+                Thread.sleep(100);
+                name = itemsB.getItemById(created.getId()).getName();
+            }
+            assertEquals("Tent XL", name);
+            itemsA.deleteItemById(created.getId());
+        }
+    }
+
+    private ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                .run("--server.port=0");
+    }
+
+    private List<String> notified() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, atLeastOnce()).queryForList(eq("select pg_notify(?, ?)"), eq(CacheInvalidationBus.CHANNEL), payload.capture());
+        return payload.getAllValues().stream().map(String::valueOf).toList();
+    }
+}
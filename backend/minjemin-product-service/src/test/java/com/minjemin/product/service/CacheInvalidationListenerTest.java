@@ -0,0 +1,102 @@
+package com.minjemin.product.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.repository.ItemRepository;
+import com.minjemin.product.repository.RentalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheInvalidationListenerTest {
+
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private RentalRepository rentalRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache(CacheConfig.ITEMS))
+                .thenReturn(new CaffeineCache(CacheConfig.ITEMS, Caffeine.newBuilder().build()));
+        listener = new CacheInvalidationListener(cacheManager, itemRepository, rentalRepository,
+                itemSearchIndex, itemAvailabilityIndex);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    void evictedKeys_RefreshedOffTheListenerThread() throws Exception {
+        CountDownLatch refreshed = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        Thread[] refresher = new Thread[1];
+        when(itemRepository.findById(7L)).thenAnswer(invocation -> {
+            refresher[0] = Thread.currentThread();
+            return Optional.empty();
+        });
+        doAnswer(invocation -> {
+            refreshed.countDown();
+            return null;
+        }).when(itemAvailabilityIndex).removeItem(7L);
+
+        listener.onInvalidation(new CacheInvalidationEvent(CacheConfig.ITEMS, Set.of(7L)));
+
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        assertNotSame(caller, refresher[0]);
+        verify(itemSearchIndex).delete(7L);
+    }
+
+    @Test
+    void evictAll_RebuildsOffTheListenerThreadAndCoalesces() throws Exception {
+        CountDownLatch rebuilding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            rebuilding.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(itemSearchIndex).rebuild();
+        doAnswer(invocation -> {
+            done.countDown();
+            return null;
+        }).when(itemAvailabilityIndex).rebuild();
+
+        // the first rebuild blocks, the calls below return at once and queue a single follow-up rebuild
+        listener.onInvalidation(new CacheInvalidationEvent(CacheConfig.ITEMS, null));
+        assertTrue(rebuilding.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            listener.onInvalidation(new CacheInvalidationEvent(CacheConfig.ITEMS, null));
+        }
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        verify(itemSearchIndex, times(2)).rebuild();
+        verify(itemAvailabilityIndex, times(2)).rebuild();
+    }
+}
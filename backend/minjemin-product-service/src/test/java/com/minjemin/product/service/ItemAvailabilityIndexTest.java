@@ -0,0 +1,130 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.repository.ActiveBooking;
+import com.minjemin.product.repository.ItemRepository;
+import com.minjemin.product.repository.RentalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemAvailabilityIndexTest {
+
+    private final LocalDate today = LocalDate.now();
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        RentalRepository rentalRepository = mock(RentalRepository.class);
+        // item 1: its 1 unit picked up for day 2..4; item 2: 2 units, 1 approved on day 3; item 3: no stock
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of(
+                item(1L, 0),
+                item(2L, 2),
+                item(3L, 0)
+        ));
+        when(rentalRepository.findActiveBookings()).thenReturn(List.of(
+                booking(1L, today.plusDays(2), today.plusDays(4), RentalStatus.ONGOING),
+                booking(2L, today.plusDays(3), today.plusDays(3), RentalStatus.APPROVED)
+        ));
+
+        itemAvailabilityIndex = new ItemAvailabilityIndex(itemRepository, rentalRepository, new SimpleMeterRegistry());
+        itemAvailabilityIndex.rebuild();
+    }
+
+    @Test
+    void availableItems_ExcludesItemsFullyBookedOnAnyDay() {
+        assertEquals(List.of(1L, 2L), available(0, 1));
+        assertEquals(List.of(2L), available(0, 3));
+        assertEquals(List.of(1L, 2L), available(5, 9));
+        assertEquals(3, itemAvailabilityIndex.itemCount());
+        assertEquals(3, itemAvailabilityIndex.dayCount());
+    }
+
+    @Test
+    void bookAndRelease_KeepIndexCurrent() {
+        // item 2 now has both units booked on day 3 only
+        itemAvailabilityIndex.book(2L, today.plusDays(3), today.plusDays(6));
+        assertTrue(available(3, 3).isEmpty());
+        assertEquals(List.of(2L), available(4, 6));
+
+        itemAvailabilityIndex.release(1L, today.plusDays(2), today.plusDays(4), true);
+        itemAvailabilityIndex.putItem(3L, 1);
+        assertEquals(List.of(1L, 3L), available(3, 6));
+    }
+
+    @Test
+    void book_SingleUnitTakesNonOverlappingRentals() {
+        itemAvailabilityIndex.putItem(3L, 1);
+        itemAvailabilityIndex.book(3L, today.plusDays(1), today.plusDays(2));
+        itemAvailabilityIndex.book(3L, today.plusDays(5), today.plusDays(6));
+
+        assertFalse(available(2, 3).contains(3L));
+        assertTrue(available(3, 4).contains(3L));
+        assertTrue(available(7, 9).contains(3L));
+
+        // picking up moves the unit off the shelf without changing the item's units
+        itemAvailabilityIndex.pickUp(3L);
+        itemAvailabilityIndex.putItem(3L, 0);
+        assertTrue(available(3, 4).contains(3L));
+    }
+
+    @Test
+    void availableItems_PagesAfterId() {
+        itemAvailabilityIndex.putItem(3L, 2);
+        itemAvailabilityIndex.removeItem(2L);
+
+        assertEquals(List.of(1L), itemAvailabilityIndex.availableItems(today, today, null, 1));
+        assertEquals(List.of(3L), itemAvailabilityIndex.availableItems(today, today, 1L, 1));
+    }
+
+    private List<Long> available(int fromDay, int toDay) {
+        return itemAvailabilityIndex.availableItems(today.plusDays(fromDay), today.plusDays(toDay), null, 10);
+    }
+
+    private Item item(Long id, int stock) {
+        return Item.builder()
+                .id(id)
+                .name("Item " + id)
+                .pricePerDay(1000d)
+                .stock(stock)
+                .available(stock > 0)
+                .ownerId("owner")
+                .build();
+    }
+
+    private ActiveBooking booking(Long itemId, LocalDate startDate, LocalDate endDate, RentalStatus status) {
+        return new ActiveBooking() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDate getStartDate() {
+                return startDate;
+            }
+
+            @Override
+            public LocalDate getEndDate() {
+                return endDate;
+            }
+
+            @Override
+            public RentalStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.dto.ImportResultDTO;
+import com.minjemin.product.dto.ItemDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=ItemImportBenchmarkTest -Dbenchmark=true
+@Slf4j
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ItemImportBenchmarkTest {
+
+    private static final String OWNER_ID = "import-benchmark-owner";
+    private static final int PER_ROW_COUNT = 2_000;
+    private static final int COPY_COUNT = 200_000;
+    // COPY has to beat one createItem per row by at least this much
+    private static final double MIN_SPEEDUP = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @AfterAll
+    void cleanup() {
+        jdbcTemplate.update("delete from items where owner_id = ?", OWNER_ID);
+    }
+
+    @Test
+    void copyImportBeatsPerRowCreate() {
+        // the per-row path: one POST /items worth of work per row
+        long start = System.nanoTime();
+        for (int i = 0; i < PER_ROW_COUNT; i++) {
+            itemService.createItem(ItemDTO.builder()
+                    .name("Tent " + i)
+                    .description("benchmark item")
+                    .pricePerDay((double) (i % 500) * 1000)
+                    .stock(1)
+                    .build(), OWNER_ID);
+        }
+        double perRowSeconds = (System.nanoTime() - start) / 1e9;
+
+        byte[] body = csv(COPY_COUNT);
+
+        start = System.nanoTime();
+        ImportResultDTO result = itemImportService.importItems(new ByteArrayInputStream(body),
+                ItemImportService.Format.CSV, OWNER_ID);
+        double copySeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(COPY_COUNT, result.getImported());
+
+        double perRowRate = PER_ROW_COUNT / perRowSeconds;
+        double copyRate = COPY_COUNT / copySeconds;
+        log.info("item import: per-row createItem {} rows/s, COPY import {} rows/s",
+                Math.round(perRowRate), Math.round(copyRate));
+        assertTrue(copyRate >= MIN_SPEEDUP * perRowRate,
+                "COPY import " + Math.round(copyRate) + " rows/s is not " + MIN_SPEEDUP + "x per-row "
+                        + Math.round(perRowRate) + " rows/s");
+    }
+
+    private static byte[] csv(int rows) {
+        StringBuilder csv = new StringBuilder("name,description,pricePerDay,stock\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("\"Tent ").append(i).append("\",benchmark item,").append((i % 500) * 1000).append(",1\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
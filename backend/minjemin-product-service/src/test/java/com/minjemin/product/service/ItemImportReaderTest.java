@@ -0,0 +1,83 @@
+package com.minjemin.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemImportReaderTest {
+
+    private final ItemImportReader reader = new ItemImportReader(new ObjectMapper());
+    private final List<ItemDTO> valid = new ArrayList<>();
+    private final List<String> invalid = new ArrayList<>();
+
+    @Test
+    void csv_ReadsQuotedFieldsAndReportsBadRows() throws IOException {
+        read(ItemImportService.Format.CSV, """
+                name,description,price_per_day,stock
+                Tent,"2 person, ""ultralight\"\"\",15000,3
+                "Camera
+                Mirrorless",,250000,
+                ,no name,1000,1
+                Stove,gas,abc,1
+                Lamp,,5000,-1
+                """);
+
+        assertEquals(2, valid.size());
+        assertEquals("2 person, \"ultralight\"", valid.get(0).getDescription());
+        assertEquals(3, valid.get(0).getStock());
+        assertEquals("Camera\nMirrorless", valid.get(1).getName());
+        assertNull(valid.get(1).getDescription());
+        assertEquals(1, valid.get(1).getStock());
+        assertTrue(valid.get(1).isAvailable());
+        assertEquals(List.of("3: name is required", "4: pricePerDay is not a number", "5: stock must not be negative"),
+                invalid);
+    }
+
+    @Test
+    void ndjson_ReadsObjectsAndReportsBadRows() throws IOException {
+        read(ItemImportService.Format.NDJSON, """
+                {"name":"Tent","pricePerDay":15000,"stock":0}
+
+                {"name":"Drone","pricePerDay":"90000.5"}
+                {"name":"Kayak"
+                ["not","an","object"]
+                {"name":"Bike","pricePerDay":-1}
+                """);
+
+        assertEquals(List.of("Tent", "Drone"), valid.stream().map(ItemDTO::getName).toList());
+        assertFalse(valid.get(0).isAvailable());
+        assertEquals(90000.5, valid.get(1).getPricePerDay());
+        assertEquals(List.of("3: malformed JSON", "4: not a JSON object", "5: pricePerDay must not be negative"),
+                invalid);
+    }
+
+    @Test
+    void csv_Failure_MissingColumnsOrUnterminatedQuote() {
+        assertThrows(BadRequestException.class, () -> read(ItemImportService.Format.CSV, "name,stock\nTent,1\n"));
+        assertThrows(BadRequestException.class, () -> read(ItemImportService.Format.CSV,
+                "name,pricePerDay\n\"Tent,1000\n"));
+    }
+
+    private void read(ItemImportService.Format format, String input) throws IOException {
+        reader.read(new BufferedReader(new StringReader(input)), format, new ItemImportReader.Rows() {
+            @Override
+            public void valid(ItemDTO item) {
+                valid.add(item);
+            }
+
+            @Override
+            public void invalid(long row, String message) {
+                invalid.add(row + ": " + message);
+            }
+        });
+    }
+}
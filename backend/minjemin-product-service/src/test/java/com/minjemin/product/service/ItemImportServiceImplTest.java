@@ -0,0 +1,50 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.MinjeminProductServiceApplication;
+import com.minjemin.product.dto.ImportResultDTO;
+import com.minjemin.product.dto.ItemDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemImportServiceImplTest {
+
+    // Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=ItemImportServiceImplTest -Dpostgres=true
+    @Test
+    @EnabledIfSystemProperty(named = "postgres", matches = "true")
+    void importItems_InsertsValidRowsAndIndexesThemAfterCommit() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                .run("--server.port=0")) {
+            ItemImportService itemImportService = context.getBean(ItemImportService.class);
+            ItemService itemService = context.getBean(ItemService.class);
+
+            String marker = "imported" + System.nanoTime();
+            String csv = "name,description,pricePerDay,stock\n"
+                    + "Tent," + marker + ",1000,2\n"
+                    + "Stove," + marker + ",not-a-price,1\n"
+                    + "Lamp," + marker + ",500,1\n";
+            ImportResultDTO result = itemImportService.importItems(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                    ItemImportService.Format.CSV, "import-owner");
+
+            assertEquals(2, result.getImported());
+            assertEquals(1, result.getFailed());
+
+            // indexing runs on the importer's own thread once the rows are committed
+            List<ItemDTO> found = List.of();
+            for (int i = 0; i < 50 && found.size() < 2; i++) {
+                Thread.sleep(100);
+                found = itemService.searchItems(marker, 10);
+            }
+            assertEquals(2, found.size());
+            assertTrue(found.stream().allMatch(item -> "import-owner".equals(item.getOwnerId())));
+        }
+    }
+}
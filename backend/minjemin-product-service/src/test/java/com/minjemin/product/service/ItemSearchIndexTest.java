@@ -0,0 +1,129 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.mapper.ItemMapperImpl;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+
+    private ItemRepository itemRepository;
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of(
+                item(1L, "Laptop Gaming", "laptop for gaming and work"),
+                item(2L, "Camera Mirrorless", "camera with extra lens"),
+                item(3L, "Tripod", "tripod for camera and laptop stand")
+        ));
+
+        itemSearchIndex = new ItemSearchIndex(itemRepository, new ItemMapperImpl(), new SimpleMeterRegistry());
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_RanksNameMatchesFirst() {
+        List<ItemDTO> result = itemSearchIndex.search("camera", 10);
+
+        assertEquals(List.of(2L, 3L), result.stream().map(ItemDTO::getId).toList());
+    }
+
+    @Test
+    void search_MatchesPrefixAndRequiresEveryToken() {
+        assertEquals(List.of(1L, 3L), itemSearchIndex.search("lapt", 10).stream().map(ItemDTO::getId).toList());
+        assertEquals(List.of(3L), itemSearchIndex.search("Laptop tripod", 10).stream().map(ItemDTO::getId).toList());
+        assertTrue(itemSearchIndex.search("drone", 10).isEmpty());
+    }
+
+    @Test
+    void indexAndDelete_KeepIndexCurrent() {
+        itemSearchIndex.index(item(2L, "Drone", "quadcopter"));
+        itemSearchIndex.delete(1L);
+
+        assertEquals(List.of(2L), itemSearchIndex.search("drone", 10).stream().map(ItemDTO::getId).toList());
+        assertEquals(List.of(3L), itemSearchIndex.search("camera", 10).stream().map(ItemDTO::getId).toList());
+        assertTrue(itemSearchIndex.search("gaming", 10).isEmpty());
+        assertEquals(2, itemSearchIndex.documentCount());
+        assertTrue(itemSearchIndex.estimatedMemoryBytes() > 0);
+    }
+
+    @Test
+    void estimatedMemoryBytes_FollowsIndexAndDelete() {
+        long built = itemSearchIndex.estimatedMemoryBytes();
+
+        itemSearchIndex.index(item(4L, "Drone", "quadcopter with camera"));
+        assertTrue(itemSearchIndex.estimatedMemoryBytes() > built);
+
+        itemSearchIndex.delete(4L);
+        assertEquals(built, itemSearchIndex.estimatedMemoryBytes());
+    }
+
+    @Test
+    void changesInTransaction_AppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(item(4L, "Drone", "quadcopter"));
+            itemSearchIndex.updateStock(2L, 0);
+            itemSearchIndex.delete(1L);
+
+            assertTrue(itemSearchIndex.search("drone", 10).isEmpty());
+            assertTrue(itemSearchIndex.search("camera", 10).get(0).isAvailable());
+            assertEquals(3, itemSearchIndex.documentCount());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(4L), itemSearchIndex.search("drone", 10).stream().map(ItemDTO::getId).toList());
+        assertFalse(itemSearchIndex.search("camera", 10).get(0).isAvailable());
+        assertEquals(3, itemSearchIndex.documentCount());
+    }
+
+    @Test
+    void rebuild_KeepsServingAndPicksUpChangesMadeDuringTheScan() {
+        Item drone = item(2L, "Drone", "quadcopter");
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            // the old contents still answer while the scan runs, and item 2 changes behind the scan's back
+            assertEquals(List.of(2L, 3L), itemSearchIndex.search("camera", 10).stream().map(ItemDTO::getId).toList());
+            itemSearchIndex.index(drone);
+            return List.of(item(1L, "Laptop Gaming", "laptop for gaming and work"),
+                    item(2L, "Camera Mirrorless", "camera with extra lens"));
+        });
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(drone));
+
+        itemSearchIndex.rebuild();
+
+        assertEquals(List.of(2L), itemSearchIndex.search("drone", 10).stream().map(ItemDTO::getId).toList());
+        assertTrue(itemSearchIndex.search("camera", 10).isEmpty());
+        assertEquals(2, itemSearchIndex.documentCount());
+    }
+
+    private Item item(Long id, String name, String description) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .pricePerDay(1000d)
+                .stock(1)
+                .available(true)
+                .ownerId("owner")
+                .build();
+    }
+}
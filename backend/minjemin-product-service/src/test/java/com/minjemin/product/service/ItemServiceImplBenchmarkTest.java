@@ -0,0 +1,123 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.repository.ItemRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=ItemServiceImplBenchmarkTest -Dbenchmark=true
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ItemServiceImplBenchmarkTest {
+
+    private static final String OWNER_ID = "benchmark-owner";
+    private static final int ITEM_COUNT = 20_000;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(Item.builder()
+                    .name((i % 10 == 0 ? "Camera " : "Tent ") + i)
+                    .description("benchmark item")
+                    .pricePerDay((double) (i % 500) * 1000)
+                    .stock(1)
+                    .available(true)
+                    .ownerId(OWNER_ID)
+                    .build());
+        }
+        itemRepository.saveAll(items);
+    }
+
+    @AfterAll
+    void cleanup() {
+        itemRepository.deleteAll(itemRepository.findAll(ownedBy()));
+    }
+
+    @Test
+    void databaseFilteringUsesIndexesAndBeatsInMemoryFiltering() {
+        String name = "camera";
+        Double minPrice = 100_000d;
+        Double maxPrice = 300_000d;
+        int size = 20;
+
+        // warm up both paths
+        List<Long> legacy = inMemory(name, minPrice, maxPrice, size);
+        List<Long> pushedDown = database(name, minPrice, maxPrice, size);
+        assertEquals(legacy, pushedDown);
+
+        long legacyNanos = 0;
+        long pushedDownNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            inMemory(name, minPrice, maxPrice, size);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            database(name, minPrice, maxPrice, size);
+            pushedDownNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("getMyItems over %d items: in-memory %.2f ms/op, specification %.2f ms/op%n",
+                ITEM_COUNT, legacyNanos / 1e6 / ROUNDS, pushedDownNanos / 1e6 / ROUNDS);
+        assertTrue(pushedDownNanos < legacyNanos, "specification was not faster than filtering in memory");
+
+        // the query getMyItems issues for the first page, planned with statistics for the seeded rows:
+        // either an owner/trigram index or the primary key walked in keyset order, never the whole table
+        jdbcTemplate.execute("analyze items");
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "explain select i.id from items i where i.owner_id = ? and lower(i.name) like ? escape '\\' " +
+                        "and i.price_per_day >= ? and i.price_per_day <= ? order by i.id limit ?",
+                String.class, OWNER_ID, ItemSpecification.containsPattern(name), minPrice, maxPrice, size + 1));
+        assertFalse(plan.contains("Seq Scan on items"), plan);
+        assertTrue(plan.contains("Index Scan") || plan.contains("Bitmap Index Scan"), plan);
+    }
+
+    // the previous getMyItems: load every item of the owner, then filter with streams
+    private List<Long> inMemory(String name, Double minPrice, Double maxPrice, int size) {
+        return itemRepository.findAll(ownedBy())
+                .stream()
+                .filter(item -> name == null || item.getName().toLowerCase().contains(name.toLowerCase()))
+                .filter(item -> minPrice == null || item.getPricePerDay() >= minPrice)
+                .filter(item -> maxPrice == null || item.getPricePerDay() <= maxPrice)
+                .map(Item::getId)
+                .sorted()
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> database(String name, Double minPrice, Double maxPrice, int size) {
+        CursorPageDTO<ItemDTO> page = itemService.getMyItems(OWNER_ID, name, minPrice, maxPrice, null, size);
+        return page.getContent().stream().map(ItemDTO::getId).collect(Collectors.toList());
+    }
+
+    private Specification<Item> ownedBy() {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("ownerId"), OWNER_ID);
+    }
+}
@@ -0,0 +1,275 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.MinjeminProductServiceApplication;
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.PaymentIntentDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.exception.BadRequestException;
+import com.minjemin.product.exception.PaymentDeclinedException;
+import com.minjemin.product.repository.ClaimedPayment;
+import com.minjemin.product.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentOutboxWorkerTest {
+
+    private static final String BORROWER_ID = "borrower123";
+
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private PaymentGateway paymentGateway;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache rentalsCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        worker = worker(paymentRepository, paymentGateway, cacheManager, 20);
+    }
+
+    @Test
+    void process_ChargesAndSettles() {
+        when(paymentGateway.charge(5L, BORROWER_ID, 3000d)).thenReturn("REF-5");
+        when(paymentRepository.completeIntent(5L, 50L, "REF-5")).thenReturn("SUCCEEDED");
+        when(cacheManager.getCache(CacheConfig.RENTALS)).thenReturn(rentalsCache);
+
+        worker.process(claimed(1));
+
+        verify(rentalsCache).evict(100L);
+        verify(paymentGateway, never()).refund(any(), any());
+        assertEquals(1, meterRegistry.counter(PaymentOutboxWorker.SETTLED, "status", "SUCCEEDED").count());
+    }
+
+    @Test
+    void process_AlreadyPaidFailsWithoutCharging() {
+        when(paymentRepository.failPaidIntent(5L, 50L)).thenReturn("FAILED");
+
+        worker.process(claimed(1));
+
+        verifyNoInteractions(paymentGateway);
+        assertEquals(1, meterRegistry.counter(PaymentOutboxWorker.SETTLED, "status", "FAILED").count());
+    }
+
+    @Test
+    void process_PaidDuringChargeIsRefunded() {
+        when(paymentGateway.charge(5L, BORROWER_ID, 3000d)).thenReturn("REF-5");
+        when(paymentRepository.completeIntent(5L, 50L, "REF-5")).thenReturn("FAILED");
+
+        worker.process(claimed(1));
+
+        verify(paymentGateway).refund(5L, "REF-5");
+        assertEquals(1, meterRegistry.counter(PaymentOutboxWorker.REFUNDS, "outcome", "refunded").count());
+    }
+
+    @Test
+    void process_NoRefundWhenAnotherWorkerSettled() {
+        when(paymentGateway.charge(5L, BORROWER_ID, 3000d)).thenReturn("REF-5");
+        when(paymentRepository.completeIntent(5L, 50L, "REF-5")).thenReturn(null);
+
+        worker.process(claimed(1));
+
+        // the other worker charged the same intent, so this is the payment it settled
+        verify(paymentGateway, never()).refund(any(), any());
+    }
+
+    @Test
+    void process_DeclinedFailsIntent() {
+        when(paymentGateway.charge(any(), any(), any())).thenThrow(new PaymentDeclinedException("Card declined"));
+
+        worker.process(claimed(1));
+
+        verify(paymentRepository).failIntent(5L, 50L, "Card declined");
+        verify(paymentRepository, never()).completeIntent(any(), any(), any());
+    }
+
+    @Test
+    void process_GatewayErrorIsRetriedLater() {
+        when(paymentGateway.charge(any(), any(), any())).thenThrow(new IllegalStateException("timeout"));
+
+        worker.process(claimed(3));
+
+        // retry-delay of 5s times the attempt
+        verify(paymentRepository).retryOutbox(50L, 15L);
+        verify(paymentRepository, never()).failIntent(any(), any(), any());
+    }
+
+    @Test
+    void process_GivesUpAfterMaxAttempts() {
+        worker.process(claimed(6));
+
+        verify(paymentRepository).failIntent(5L, 50L, "Payment gateway unavailable");
+        verifyNoInteractions(paymentGateway);
+    }
+
+    // Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=PaymentOutboxWorkerTest -Dpostgres=true
+    @Test
+    @EnabledIfSystemProperty(named = "postgres", matches = "true")
+    void workersOnSeveralNodes_ChargeEveryIntentOnce() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                .run("--server.port=0", "--minjemin.payments.worker.enabled=false")) {
+            ItemService itemService = context.getBean(ItemService.class);
+            RentalService rentalService = context.getBean(RentalService.class);
+            PaymentService payments = context.getBean(PaymentService.class);
+            PaymentRepository repository = context.getBean(PaymentRepository.class);
+            CacheManager caches = context.getBean(CacheManager.class);
+
+            ItemDTO item = itemService.createItem(ItemDTO.builder().name("Tent").pricePerDay(1000d).stock(50).build(),
+                    "payment-owner");
+            LocalDate start = LocalDate.now().plusYears(6);
+            List<Long> intents = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                RentalDTO rental = rentalService.createRental(RentalDTO.builder().itemId(item.getId())
+                        .startDate(start).endDate(start).build(), BORROWER_ID, "Budi");
+                intents.add(payments.submitPayment(rental.getId(), BORROWER_ID, 1000d, null).getId());
+            }
+
+            // three nodes' workers draining the same queue in small batches
+            Map<Long, AtomicInteger> charges = new ConcurrentHashMap<>();
+            PaymentGateway countingGateway = new PaymentGateway() {
+                @Override
+                public String charge(Long intentId, String payerId, Double amount) {
+                    charges.computeIfAbsent(intentId, id -> new AtomicInteger()).incrementAndGet();
+                    return "TEST-" + intentId + "-" + System.nanoTime();
+                }
+
+                @Override
+                public void refund(Long intentId, String paymentRef) {
+                    fail("intent " + intentId + " was refunded");
+                }
+            };
+            ExecutorService nodes = Executors.newFixedThreadPool(3);
+            try {
+                List<Future<?>> drains = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    PaymentOutboxWorker node = worker(repository, countingGateway, caches, 3);
+                    drains.add(nodes.submit(node::drain));
+                }
+                for (Future<?> drain : drains) {
+                    drain.get();
+                }
+            } finally {
+                nodes.shutdownNow();
+            }
+
+            // a worker of another context in this JVM may take part too, its settlements carry its own refs
+            for (Long intentId : intents) {
+                PaymentIntentDTO intent = payments.getPaymentIntent(intentId, BORROWER_ID);
+                assertEquals("SUCCEEDED", intent.getStatus(), intent.toString());
+                AtomicInteger charged = charges.get(intentId);
+                if (intent.getPaymentRef().startsWith("TEST-")) {
+                    assertEquals(1, charged.get(), "intent " + intentId);
+                } else {
+                    assertNull(charged, "intent " + intentId);
+                }
+            }
+        }
+    }
+
+    // Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=PaymentOutboxWorkerTest -Dpostgres=true
+    @Test
+    @EnabledIfSystemProperty(named = "postgres", matches = "true")
+    void pendingIntent_BlocksDirectPaymentAndIsNotChargedOncePaid() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                .run("--server.port=0", "--minjemin.payments.worker.enabled=false")) {
+            ItemService itemService = context.getBean(ItemService.class);
+            RentalService rentalService = context.getBean(RentalService.class);
+            PaymentService payments = context.getBean(PaymentService.class);
+            PaymentRepository repository = context.getBean(PaymentRepository.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            ItemDTO item = itemService.createItem(ItemDTO.builder().name("Tent").pricePerDay(1000d).stock(1).build(),
+                    "payment-owner");
+            LocalDate start = LocalDate.now().plusYears(6);
+            RentalDTO rental = rentalService.createRental(RentalDTO.builder().itemId(item.getId())
+                    .startDate(start).endDate(start).build(), BORROWER_ID, "Budi");
+            PaymentIntentDTO intent = payments.submitPayment(rental.getId(), BORROWER_ID, 1000d, null);
+
+            BadRequestException e = assertThrows(BadRequestException.class,
+                    () -> payments.createPayment(rental.getId(), BORROWER_ID, 1000d, null));
+            assertEquals("Rental has a payment in progress", e.getMessage());
+
+            // paid by a direct payment that raced the intent's insert
+            jdbcTemplate.update("update rentals set paid = true where id = ?", rental.getId());
+            PaymentGateway gateway = mock(PaymentGateway.class);
+            worker(repository, gateway, context.getBean(CacheManager.class), 20).drain();
+
+            PaymentIntentDTO settled = payments.getPaymentIntent(intent.getId(), BORROWER_ID);
+            assertEquals("FAILED", settled.getStatus());
+            assertEquals("Rental already paid", settled.getFailureReason());
+            verify(gateway, never()).charge(eq(intent.getId()), any(), any());
+        }
+    }
+
+    private PaymentOutboxWorker worker(PaymentRepository repository, PaymentGateway gateway, CacheManager caches,
+                                       int batchSize) {
+        return new PaymentOutboxWorker(repository, gateway, caches, meterRegistry, Duration.ofMillis(200),
+                batchSize, 4, Duration.ofSeconds(60), 5, Duration.ofSeconds(5));
+    }
+
+    private static ClaimedPayment claimed(int attempts) {
+        return new ClaimedPayment() {
+            @Override
+            public Long getOutboxId() {
+                return 50L;
+            }
+
+            @Override
+            public Integer getAttempts() {
+                return attempts;
+            }
+
+            @Override
+            public Long getIntentId() {
+                return 5L;
+            }
+
+            @Override
+            public Long getRentalId() {
+                return 100L;
+            }
+
+            @Override
+            public String getPayerId() {
+                return BORROWER_ID;
+            }
+
+            @Override
+            public Double getAmount() {
+                return 3000d;
+            }
+        };
+    }
+}
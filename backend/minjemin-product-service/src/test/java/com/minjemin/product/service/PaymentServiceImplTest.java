@@ -0,0 +1,215 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.MinjeminProductServiceApplication;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.PaymentDTO;
+import com.minjemin.product.dto.PaymentIntentDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.exception.BadRequestException;
+import com.minjemin.product.model.Rental;
+import com.minjemin.product.repository.PaymentIntentRow;
+import com.minjemin.product.repository.PaymentRepository;
+import com.minjemin.product.repository.PaymentRow;
+import com.minjemin.product.repository.RentalRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentServiceImplTest {
+
+    private static final String BORROWER_ID = "borrower123";
+    private static final Long RENTAL_ID = 100L;
+
+    @Mock
+    private RentalRepository rentalRepository;
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private PaymentIdempotencyStore idempotencyStore;
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private PaymentServiceImpl paymentService;
+
+    private final PaymentDTO stored = PaymentDTO.builder()
+            .id(7L).amount(3000d).rentalId(RENTAL_ID).paymentRef("MOCK-stored").paidAt(LocalDateTime.now())
+            .build();
+
+    @Test
+    void createPayment_ReplayIsAnsweredFromStore() {
+        when(idempotencyStore.find(BORROWER_ID, "key-1")).thenReturn(Optional.of(stored));
+
+        assertSame(stored, paymentService.createPayment(RENTAL_ID, BORROWER_ID, 3000d, "key-1"));
+        verifyNoInteractions(paymentRepository, rentalRepository);
+    }
+
+    @Test
+    void createPayment_KeyReusedForAnotherRental() {
+        when(idempotencyStore.find(BORROWER_ID, "key-1")).thenReturn(Optional.of(stored));
+
+        assertThrows(BadRequestException.class,
+                () -> paymentService.createPayment(RENTAL_ID + 1, BORROWER_ID, 3000d, "key-1"));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void createPayment_PaysAndRemembersKey() {
+        PaymentRow row = mock(PaymentRow.class);
+        when(row.getId()).thenReturn(8L);
+        when(row.getRentalId()).thenReturn(RENTAL_ID);
+        when(idempotencyStore.find(BORROWER_ID, "key-1")).thenReturn(Optional.empty());
+        when(paymentRepository.payRental(eq(RENTAL_ID), eq(BORROWER_ID), eq(3000d), anyString(), eq("key-1")))
+                .thenReturn(row);
+
+        PaymentDTO payment = paymentService.createPayment(RENTAL_ID, BORROWER_ID, 3000d, "key-1");
+
+        assertEquals(8L, payment.getId());
+        verify(idempotencyStore).remember(BORROWER_ID, "key-1", payment);
+    }
+
+    @Test
+    void createPayment_RaceWithSameKeyReturnsFirstPayment() {
+        // the first request committed while this one waited on the rental row
+        when(idempotencyStore.find(BORROWER_ID, "key-1")).thenReturn(Optional.empty(), Optional.of(stored));
+        when(paymentRepository.payRental(any(), any(), any(), any(), any())).thenReturn(null);
+
+        assertSame(stored, paymentService.createPayment(RENTAL_ID, BORROWER_ID, 3000d, "key-1"));
+        verifyNoInteractions(rentalRepository);
+    }
+
+    @Test
+    void createPayment_RejectsMissingOrNonPositiveAmount() {
+        for (Double amount : new Double[]{null, 0d, -1000d}) {
+            BadRequestException e = assertThrows(BadRequestException.class,
+                    () -> paymentService.createPayment(RENTAL_ID, BORROWER_ID, amount, "key-1"));
+            assertEquals("Amount must be positive", e.getMessage());
+        }
+        verifyNoInteractions(paymentRepository, rentalRepository, idempotencyStore);
+    }
+
+    @Test
+    void createPayment_AlreadyPaidWithoutKey() {
+        when(paymentRepository.payRental(any(), any(), any(), any())).thenReturn(null);
+        when(rentalRepository.findById(RENTAL_ID)).thenReturn(Optional.of(Rental.builder()
+                .id(RENTAL_ID).borrowerId(BORROWER_ID).paid(true).build()));
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> paymentService.createPayment(RENTAL_ID, BORROWER_ID, 3000d, null));
+        assertEquals("Rental already paid", e.getMessage());
+    }
+
+    @Test
+    void createPayment_RefusedWhileIntentIsPending() {
+        when(paymentRepository.payRental(any(), any(), any(), any())).thenReturn(null);
+        when(rentalRepository.findById(RENTAL_ID)).thenReturn(Optional.of(Rental.builder()
+                .id(RENTAL_ID).borrowerId(BORROWER_ID).paid(false).build()));
+        when(paymentRepository.findPendingIntent(RENTAL_ID, BORROWER_ID)).thenReturn(mock(PaymentIntentRow.class));
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> paymentService.createPayment(RENTAL_ID, BORROWER_ID, 3000d, null));
+        assertEquals("Rental has a payment in progress", e.getMessage());
+    }
+
+    @Test
+    void submitPayment_RecordsPendingIntent() {
+        PaymentIntentRow row = mock(PaymentIntentRow.class);
+        when(row.getId()).thenReturn(9L);
+        when(row.getStatus()).thenReturn("PENDING");
+        when(paymentRepository.submitIntent(RENTAL_ID, BORROWER_ID, 3000d, null)).thenReturn(row);
+
+        PaymentIntentDTO intent = paymentService.submitPayment(RENTAL_ID, BORROWER_ID, 3000d, null);
+
+        assertEquals(9L, intent.getId());
+        assertEquals("PENDING", intent.getStatus());
+        verify(paymentRepository, never()).payRental(any(), any(), any(), any());
+    }
+
+    @Test
+    void submitPayment_RetryJoinsPendingIntent() {
+        PaymentIntentRow pending = mock(PaymentIntentRow.class);
+        when(pending.getId()).thenReturn(9L);
+        when(paymentRepository.submitIntent(RENTAL_ID, BORROWER_ID, 3000d, null)).thenReturn(null);
+        when(paymentRepository.findPendingIntent(RENTAL_ID, BORROWER_ID)).thenReturn(pending);
+
+        assertEquals(9L, paymentService.submitPayment(RENTAL_ID, BORROWER_ID, 3000d, null).getId());
+        verifyNoInteractions(rentalRepository);
+    }
+
+    // Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=PaymentServiceImplTest -Dpostgres=true
+    @Test
+    @EnabledIfSystemProperty(named = "postgres", matches = "true")
+    void concurrentRetries_PayOnce() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                .run("--server.port=0")) {
+            ItemService itemService = context.getBean(ItemService.class);
+            RentalService rentalService = context.getBean(RentalService.class);
+            PaymentService payments = context.getBean(PaymentService.class);
+
+            ItemDTO item = itemService.createItem(ItemDTO.builder().name("Tent").pricePerDay(1000d).stock(2).build(),
+                    "payment-owner");
+            LocalDate start = LocalDate.now().plusYears(5);
+            RentalDTO withKey = rentalService.createRental(RentalDTO.builder().itemId(item.getId())
+                    .startDate(start).endDate(start).build(), BORROWER_ID, "Budi");
+            RentalDTO withoutKey = rentalService.createRental(RentalDTO.builder().itemId(item.getId())
+                    .startDate(start).endDate(start).build(), BORROWER_ID, "Budi");
+
+            String key = "retry-" + System.nanoTime();
+            List<Object> keyed = race(() -> payments.createPayment(withKey.getId(), BORROWER_ID, 1000d, key));
+            assertTrue(keyed.stream().allMatch(PaymentDTO.class::isInstance), keyed.toString());
+            assertEquals(1, keyed.stream().map(p -> ((PaymentDTO) p).getId()).collect(Collectors.toSet()).size());
+
+            List<Object> unkeyed = race(() -> payments.createPayment(withoutKey.getId(), BORROWER_ID, 1000d, null));
+            assertEquals(1, unkeyed.stream().filter(PaymentDTO.class::isInstance).count(), unkeyed.toString());
+            assertEquals(Set.of("Rental already paid"), unkeyed.stream().filter(BadRequestException.class::isInstance)
+                    .map(e -> ((BadRequestException) e).getMessage()).collect(Collectors.toSet()));
+        }
+    }
+
+    // outcome of each of 8 concurrent calls, the result or the exception
+    private static List<Object> race(Callable<PaymentDTO> call) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PaymentDTO>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(call));
+            }
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<PaymentDTO> future : futures) {
+                try {
+                    outcomes.add(future.get());
+                } catch (ExecutionException e) {
+                    outcomes.add(e.getCause());
+                }
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
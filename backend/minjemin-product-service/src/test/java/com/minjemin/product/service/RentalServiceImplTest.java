@@ -1,19 +1,30 @@
 package com.minjemin.product.service;
 
+import com.minjemin.product.MinjeminProductServiceApplication;
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.AvailabilityDTO;
+import com.minjemin.product.dto.ItemDTO;
 import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.dto.RentalStatDTO;
 import com.minjemin.product.exception.BadRequestException;
+import com.minjemin.product.exception.NotFoundException;
 import com.minjemin.product.mapper.RentalMapper;
 import com.minjemin.product.model.Item;
 import com.minjemin.product.model.Rental;
 import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.repository.ItemAvailability;
 import com.minjemin.product.repository.ItemRepository;
 import com.minjemin.product.repository.RentalRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,8 +32,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +50,14 @@ public class RentalServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private RentalMapper rentalMapper;
+    @Mock
+    private StatService statService;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @Mock
+    private CacheManager cacheManager;
 
     @InjectMocks
     private RentalServiceImpl rentalService;
@@ -92,6 +113,8 @@ public class RentalServiceImplTest {
     void createRental_Success() {
         // Arrange
         when(itemRepository.findById(TEST_ITEM_ID)).thenReturn(Optional.of(testItem));
+        when(rentalRepository.findAvailability(eq(TEST_ITEM_ID), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(availability(5, 4));
         when(rentalRepository.save(any(Rental.class))).thenReturn(testRental);
         when(rentalMapper.toDto(any(Rental.class))).thenReturn(testRentalDTO);
 
@@ -102,6 +125,83 @@ public class RentalServiceImplTest {
         assertNotNull(result);
         assertEquals(3000L, result.getTotalPrice());
         verify(rentalRepository, times(1)).save(any(Rental.class));
+        verify(statService, times(1)).recordTransition(null, RentalStatus.PENDING);
+    }
+
+    @Test
+    void createRental_Failure_FullyBookedForDates() {
+        // Arrange: 1 unit, already booked by an overlapping approved rental
+        when(itemRepository.findById(TEST_ITEM_ID)).thenReturn(Optional.of(testItem));
+        when(rentalRepository.findAvailability(eq(TEST_ITEM_ID), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(availability(1, 1));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () ->
+                rentalService.createRental(testRentalDTO, TEST_BORROWER_ID, "Budi")
+        );
+        verify(rentalRepository, never()).save(any(Rental.class));
+    }
+
+    @Test
+    void createRentals_Success_SavesAllLinesTogether() {
+        // Arrange: two lines, one findAllById and one saveAll
+        RentalDTO second = testRentalDTO.toBuilder().totalPrice(null).build();
+        when(itemRepository.findAllById(Collections.singleton(TEST_ITEM_ID))).thenReturn(List.of(testItem));
+        when(rentalRepository.findAvailability(eq(TEST_ITEM_ID), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(availability(5, 0));
+        when(rentalRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(rentalMapper.toDto(any(Rental.class))).thenReturn(testRentalDTO);
+
+        // Act
+        List<RentalDTO> result = rentalService.createRentals(List.of(testRentalDTO, second), TEST_BORROWER_ID, "Budi");
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(rentalRepository, never()).save(any(Rental.class));
+        verify(rentalRepository, times(1)).saveAll(argThat(rentals -> {
+            List<Rental> list = (List<Rental>) rentals;
+            return list.size() == 2 && list.get(1).getTotalPrice() == 3000d
+                    && list.stream().allMatch(rental -> rental.getStatus() == RentalStatus.PENDING);
+        }));
+        verify(statService, times(1)).recordCreation(RentalStatus.PENDING, 2);
+    }
+
+    @Test
+    void createRentals_Failure_OneLineInvalidSavesNothing() {
+        // Arrange: second line points to an item that doesn't exist
+        RentalDTO missing = testRentalDTO.toBuilder().itemId(99L).build();
+        when(itemRepository.findAllById(anySet())).thenReturn(List.of(testItem));
+        when(rentalRepository.findAvailability(eq(TEST_ITEM_ID), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(availability(5, 0));
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () ->
+                rentalService.createRentals(List.of(testRentalDTO, missing), TEST_BORROWER_ID, "Budi")
+        );
+        verify(rentalRepository, never()).saveAll(anyList());
+        verifyNoInteractions(statService);
+    }
+
+    @Test
+    void createRentals_Failure_LinesOverlapEachOther() {
+        // Arrange: 1 free unit, two lines want it for overlapping dates, a third line is later
+        RentalDTO overlapping = testRentalDTO.toBuilder().startDate(testRentalDTO.getEndDate())
+                .endDate(testRentalDTO.getEndDate().plusDays(2)).build();
+        RentalDTO later = testRentalDTO.toBuilder().startDate(testRentalDTO.getEndDate().plusDays(1))
+                .endDate(testRentalDTO.getEndDate().plusDays(2)).build();
+        when(itemRepository.findAllById(anySet())).thenReturn(List.of(testItem));
+        when(rentalRepository.findAvailability(eq(TEST_ITEM_ID), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(availability(1, 0));
+        when(rentalRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        assertEquals(2, rentalService.createRentals(List.of(testRentalDTO, later), TEST_BORROWER_ID, "Budi").size());
+        assertThrows(BadRequestException.class, () ->
+                rentalService.createRentals(List.of(testRentalDTO, overlapping), TEST_BORROWER_ID, "Budi")
+        );
+        verify(rentalRepository, times(1)).saveAll(anyList());
+        verifyNoInteractions(itemAvailabilityIndex);
     }
 
     // --------------------------------------------------------------------------------
@@ -133,38 +233,67 @@ public class RentalServiceImplTest {
     }
 
     // --------------------------------------------------------------------------------
-    // Tests for getMyRentalsPage (In-Memory Pagination)
+    // Tests for getMyRentals (Keyset Pagination)
     // --------------------------------------------------------------------------------
 
     @Test
-    void getMyRentalsPage_Success_FilteringAndPaging() {
+    void getMyRentals_Success_ReturnsCursorWhenMoreRows() {
         // Arrange
-        // create 3 Rental: 2 matching, 1 not matching (status: CANCELLED)
-        Rental rental1 = testRental.toBuilder().id(1L).status(RentalStatus.PENDING).build();
-        Rental rental2 = testRental.toBuilder().id(2L).status(RentalStatus.PENDING).build();
-        Rental rental3 = testRental.toBuilder().id(3L).status(RentalStatus.CANCELLED).build();
+        // page size 1, repository returns size + 1 rows so there is a next page
+        Rental rental1 = testRental.toBuilder().id(2L).createdAt(LocalDateTime.of(2025, 11, 22, 10, 0)).build();
+        Rental rental2 = testRental.toBuilder().id(1L).createdAt(LocalDateTime.of(2025, 11, 21, 10, 0)).build();
 
-        List<Rental> allRentals = Arrays.asList(rental1, rental2, rental3);
+        when(rentalRepository.findBy(any(Specification.class), any())).thenReturn(Arrays.asList(rental1, rental2));
+        when(rentalMapper.toDto(rental1)).thenReturn(testRentalDTO.toBuilder().id(2L).build());
 
-        when(rentalRepository.findByBorrowerId(TEST_BORROWER_ID)).thenReturn(allRentals);
+        // Act
+        CursorPageDTO<RentalDTO> result = rentalService.getMyRentals(TEST_BORROWER_ID, "laptop", "pending", null, 1);
 
-        // Mock Mapper: only return DTO. Filter status "pending"
-        when(rentalMapper.toDto(rental1)).thenReturn(testRentalDTO.toBuilder().id(1L).status("PENDING").build());
-        when(rentalMapper.toDto(rental2)).thenReturn(testRentalDTO.toBuilder().id(2L).status("PENDING").build());
-        //when(rentalMapper.toDto(rental3)).thenReturn(testRentalDTO.toBuilder().id(3L).status("CANCELLED").build());
+        // Assert
+        assertEquals(1, result.getContent().size()); // Ukuran halaman adalah 1
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertNotNull(result.getNextCursor());
+        verify(rentalMapper, never()).toDto(rental2);
+    }
 
-        // Pageable: page 0, Size 1
-        Pageable pageable = PageRequest.of(0, 1);
+    @Test
+    void getMyRentals_LastPage_HasNoCursor() {
+        // Arrange
+        String cursor = Cursors.encode(LocalDateTime.of(2025, 11, 22, 10, 0), 2L);
+        when(rentalRepository.findBy(any(Specification.class), any())).thenReturn(Collections.singletonList(testRental));
+        when(rentalMapper.toDto(testRental)).thenReturn(testRentalDTO);
 
         // Act
-        // Filter: name="laptop" (match), status="pending" (match 2 rental)
-        Page<RentalDTO> result = rentalService.getMyRentalsPage(TEST_BORROWER_ID, "laptop", "pending", pageable);
+        CursorPageDTO<RentalDTO> result = rentalService.getMyRentals(TEST_BORROWER_ID, null, null, cursor, 10);
 
         // Assert
-        assertEquals(2, result.getTotalElements()); // Total elemen yang difilter adalah 2
-        assertEquals(1, result.getContent().size()); // Ukuran halaman adalah 1
-        assertEquals(0, result.getNumber()); // Halaman yang diambil adalah 0
-        assertEquals(1L, result.getContent().get(0).getId()); // Rental pertama yang diambil
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void parseStatuses_AcceptsCommaSeparatedExactValues() {
+        assertEquals(EnumSet.of(RentalStatus.PENDING, RentalStatus.APPROVED),
+                RentalServiceImpl.parseStatuses("PENDING, approved"));
+        assertTrue(RentalServiceImpl.parseStatuses(null).isEmpty());
+    }
+
+    @Test
+    void getMyRentals_Failure_UnknownStatus() {
+        // Act & Assert: partial values like "pend" are no longer matched
+        assertThrows(BadRequestException.class, () ->
+                rentalService.getMyRentals(TEST_BORROWER_ID, null, "pend", null, 10)
+        );
+        verifyNoInteractions(rentalRepository);
+    }
+
+    @Test
+    void getRequestRentals_Failure_InvalidCursor() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () ->
+                rentalService.getRequestRentals(TEST_OWNER_ID, null, null, "not-a-cursor", 10)
+        );
+        verifyNoInteractions(rentalRepository);
     }
 
     // --------------------------------------------------------------------------------
@@ -178,6 +307,8 @@ public class RentalServiceImplTest {
         testItem.setStock(5);
 
         when(rentalRepository.findById(TEST_RENTAL_ID)).thenReturn(Optional.of(testRental));
+        when(rentalRepository.findAvailability(TEST_ITEM_ID, testRental.getStartDate(), testRental.getEndDate()))
+                .thenReturn(availability(5, 1));
         when(rentalMapper.toDto(any(Rental.class))).thenReturn(testRentalDTO.toBuilder().status("APPROVED").build());
 
         // Act
@@ -185,9 +316,28 @@ public class RentalServiceImplTest {
 
         // Assert
         assertEquals("APPROVED", result.getStatus());
-        // Stock harus berkurang 1
-        verify(itemRepository, times(1)).save(argThat(item -> item.getStock() == 4));
-        verify(rentalRepository, times(1)).save(argThat(rental -> rental.getStatus() == RentalStatus.APPROVED));
+        // approving books the dates under the item row lock, stock is only taken at pickup
+        verify(itemRepository, times(1)).lockById(TEST_ITEM_ID);
+        verify(itemRepository, never()).reserveStock(any());
+        verifyNoInteractions(itemSearchIndex);
+        verify(rentalRepository, times(1)).saveAndFlush(argThat(rental -> rental.getStatus() == RentalStatus.APPROVED));
+        verify(itemAvailabilityIndex, times(1)).book(TEST_ITEM_ID, testRental.getStartDate(), testRental.getEndDate());
+        verify(statService, times(1)).recordTransition(RentalStatus.PENDING, RentalStatus.APPROVED);
+    }
+
+    @Test
+    void approveRental_Failure_OverlappingBooking() {
+        // Arrange: 1 unit, this rental plus another approved one overlap
+        testRental.setStatus(RentalStatus.PENDING);
+        when(rentalRepository.findById(TEST_RENTAL_ID)).thenReturn(Optional.of(testRental));
+        when(rentalRepository.findAvailability(TEST_ITEM_ID, testRental.getStartDate(), testRental.getEndDate()))
+                .thenReturn(availability(1, 2));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () ->
+                rentalService.approveRental(TEST_RENTAL_ID, TEST_OWNER_ID)
+        );
+        verifyNoInteractions(statService, itemAvailabilityIndex, itemSearchIndex, cacheManager);
     }
 
     @Test
@@ -199,6 +349,7 @@ public class RentalServiceImplTest {
         assertThrows(BadRequestException.class, () ->
                 rentalService.approveRental(TEST_RENTAL_ID, "someoneElse")
         );
+        verifyNoInteractions(statService);
     }
 
     @Test
@@ -213,6 +364,96 @@ public class RentalServiceImplTest {
         );
     }
 
+    // Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=RentalServiceImplTest -Dpostgres=true
+    @Test
+    @EnabledIfSystemProperty(named = "postgres", matches = "true")
+    void approveRental_SingleUnitTakesNonOverlappingRentals() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                .run("--server.port=0")) {
+            ItemService itemService = context.getBean(ItemService.class);
+            RentalService service = context.getBean(RentalService.class);
+
+            ItemDTO item = itemService.createItem(ItemDTO.builder().name("Tent").pricePerDay(1000d).stock(1).build(),
+                    TEST_OWNER_ID);
+            LocalDate start = LocalDate.now().plusYears(7);
+            RentalDTO first = rent(service, item.getId(), start, start.plusDays(1));
+            RentalDTO later = rent(service, item.getId(), start.plusDays(4), start.plusDays(5));
+            RentalDTO overlapping = rent(service, item.getId(), start.plusDays(1), start.plusDays(2));
+
+            assertEquals("APPROVED", service.approveRental(first.getId(), TEST_OWNER_ID).getStatus());
+            assertEquals("APPROVED", service.approveRental(later.getId(), TEST_OWNER_ID).getStatus());
+            assertThrows(BadRequestException.class, () -> service.approveRental(overlapping.getId(), TEST_OWNER_ID));
+
+            assertEquals(1, itemService.getItemById(item.getId()).getStock());
+            assertTrue(itemService.getAvailability(item.getId(), start.plusDays(2), start.plusDays(3)).isAvailable());
+        }
+    }
+
+    // Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=RentalServiceImplTest -Dpostgres=true
+    @Test
+    @EnabledIfSystemProperty(named = "postgres", matches = "true")
+    void createRental_CountsBusiestDayNotEveryOverlap() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                .run("--server.port=0")) {
+            ItemService itemService = context.getBean(ItemService.class);
+            RentalService service = context.getBean(RentalService.class);
+
+            ItemDTO item = itemService.createItem(ItemDTO.builder().name("Tent").pricePerDay(1000d).stock(2).build(),
+                    TEST_OWNER_ID);
+            LocalDate start = LocalDate.now().plusYears(8);
+            service.approveRental(rent(service, item.getId(), start, start.plusDays(1)).getId(), TEST_OWNER_ID);
+            service.approveRental(rent(service, item.getId(), start.plusDays(4), start.plusDays(5)).getId(), TEST_OWNER_ID);
+
+            // two units and never more than one booked on the same day
+            AvailabilityDTO availability = itemService.getAvailability(item.getId(), start, start.plusDays(5));
+            assertEquals(1, availability.getBooked());
+            assertTrue(availability.isAvailable());
+            RentalDTO whole = rent(service, item.getId(), start, start.plusDays(5));
+            assertEquals("APPROVED", service.approveRental(whole.getId(), TEST_OWNER_ID).getStatus());
+
+            assertFalse(itemService.getAvailability(item.getId(), start, start.plusDays(5)).isAvailable());
+            assertThrows(BadRequestException.class, () -> rent(service, item.getId(), start.plusDays(1), start.plusDays(2)));
+        }
+    }
+
+    // Needs the local Postgres from docker-compose, run with: mvnw test -Dtest=RentalServiceImplTest -Dpostgres=true
+    @Test
+    @EnabledIfSystemProperty(named = "postgres", matches = "true")
+    void rentalTotals_SumTheStripedCounters() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MinjeminProductServiceApplication.class)
+                .run("--server.port=0")) {
+            ItemService itemService = context.getBean(ItemService.class);
+            RentalService service = context.getBean(RentalService.class);
+            StatService statService = context.getBean(StatService.class);
+            RentalStatDTO before = statService.totalRental();
+
+            ItemDTO item = itemService.createItem(ItemDTO.builder().name("Tent").pricePerDay(1000d).stock(3).build(),
+                    TEST_OWNER_ID);
+            LocalDate start = LocalDate.now().plusYears(9);
+            // enough transitions that they land on several slots
+            for (int i = 0; i < 20; i++) {
+                RentalDTO rental = rent(service, item.getId(), start.plusDays(3L * i), start.plusDays(3L * i + 1));
+                if (i % 2 == 0) {
+                    service.approveRental(rental.getId(), TEST_OWNER_ID);
+                }
+            }
+
+            RentalStatDTO after = statService.totalRental();
+            assertEquals(before.getTotalRental() + 20, after.getTotalRental());
+            assertEquals(count(before, RentalStatus.PENDING) + 10, count(after, RentalStatus.PENDING));
+            assertEquals(count(before, RentalStatus.APPROVED) + 10, count(after, RentalStatus.APPROVED));
+        }
+    }
+
+    private long count(RentalStatDTO stats, RentalStatus status) {
+        return stats.getStatuses().getOrDefault(status, 0L);
+    }
+
+    private RentalDTO rent(RentalService service, Long itemId, LocalDate startDate, LocalDate endDate) {
+        return service.createRental(RentalDTO.builder().itemId(itemId).startDate(startDate).endDate(endDate).build(),
+                TEST_BORROWER_ID, "Budi");
+    }
+
     // --------------------------------------------------------------------------------
     // Tests for startRental
     // --------------------------------------------------------------------------------
@@ -223,6 +464,8 @@ public class RentalServiceImplTest {
         testRental.setStatus(RentalStatus.APPROVED);
         testRental.setPaid(true);
         when(rentalRepository.findById(TEST_RENTAL_ID)).thenReturn(Optional.of(testRental));
+        when(itemRepository.reserveStock(TEST_ITEM_ID)).thenReturn(1);
+        when(itemRepository.findStockById(TEST_ITEM_ID)).thenReturn(4);
         when(rentalMapper.toDto(any(Rental.class))).thenReturn(testRentalDTO.toBuilder().status("ONGOING").build());
 
         // Act
@@ -230,9 +473,30 @@ public class RentalServiceImplTest {
 
         // Assert
         assertEquals("ONGOING", result.getStatus());
+        // Stock harus berkurang 1 saat pickup, lewat conditional UPDATE (bukan save entity)
+        verify(itemRepository, times(1)).reserveStock(TEST_ITEM_ID);
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(itemSearchIndex, times(1)).updateStock(TEST_ITEM_ID, 4);
+        verify(itemAvailabilityIndex, times(1)).pickUp(TEST_ITEM_ID);
         verify(rentalRepository, times(1)).save(argThat(rental -> rental.getStatus() == RentalStatus.ONGOING));
     }
 
+    @Test
+    void startRental_Failure_OutOfStock() {
+        // Arrange: conditional UPDATE matched no row (the last unit is still out with an earlier borrower)
+        testRental.setStatus(RentalStatus.APPROVED);
+        testRental.setPaid(true);
+        when(rentalRepository.findById(TEST_RENTAL_ID)).thenReturn(Optional.of(testRental));
+        when(itemRepository.reserveStock(TEST_ITEM_ID)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () ->
+                rentalService.startRental(TEST_RENTAL_ID, TEST_BORROWER_ID)
+        );
+        verify(rentalRepository, never()).save(any(Rental.class));
+        verifyNoInteractions(statService, itemAvailabilityIndex);
+    }
+
     @Test
     void startRental_Failure_MustBeApproved() {
         // Arrange
@@ -277,7 +541,8 @@ public class RentalServiceImplTest {
         assertEquals("COMPLETED", result.getStatus());
 
         // Stock should increment
-        verify(itemRepository, times(1)).save(argThat(item -> item.getStock() == 1 && item.getAvailable()));
+        verify(itemRepository, times(1)).releaseStock(TEST_ITEM_ID);
+        verify(itemAvailabilityIndex, times(1)).release(TEST_ITEM_ID, testRental.getStartDate(), testRental.getEndDate(), true);
         verify(rentalRepository, times(1)).save(argThat(rental -> rental.getStatus() == RentalStatus.COMPLETED));
     }
 
@@ -310,6 +575,7 @@ public class RentalServiceImplTest {
         // Assert
         assertEquals("CANCELLED", result.getStatus());
         verify(rentalRepository, times(1)).save(argThat(rental -> rental.getStatus() == RentalStatus.CANCELLED));
+        verify(statService, times(1)).recordTransition(RentalStatus.PENDING, RentalStatus.CANCELLED);
     }
 
     @Test
@@ -323,4 +589,18 @@ public class RentalServiceImplTest {
                 rentalService.cancelRental(TEST_RENTAL_ID, TEST_BORROWER_ID)
         );
     }
+
+    private ItemAvailability availability(long units, long booked) {
+        return new ItemAvailability() {
+            @Override
+            public Long getUnits() {
+                return units;
+            }
+
+            @Override
+            public Long getBooked() {
+                return booked;
+            }
+        };
+    }
 }
@@ -0,0 +1,117 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.config.SqlBudget;
+import com.minjemin.product.config.SqlBudgetConfig;
+import com.minjemin.product.config.SqlStatementRecorder;
+import com.minjemin.product.dto.CursorPageDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.mapper.ItemMapperImpl;
+import com.minjemin.product.mapper.RentalMapperImpl;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.Rental;
+import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.repository.RentalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Query budgets of the rental list paths, a mapper or specification change that brings back
+// one select per item fails here instead of in production
+@DataJpaTest
+@Import({SqlBudgetConfig.class, RentalServiceImpl.class, RentalMapperImpl.class, ItemMapperImpl.class})
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class RentalServiceSqlBudgetTest {
+
+    private static final String BORROWER_ID = "borrower123";
+    private static final String OWNER_ID = "owner456";
+
+    @MockitoBean
+    private StatService statService;
+    @MockitoBean
+    private ItemSearchIndex itemSearchIndex;
+    @MockitoBean
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private RentalService rentalService;
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @BeforeEach
+    void setUp() {
+        // 5 distinct items, 2 rentals each
+        for (int i = 0; i < 5; i++) {
+            Item item = entityManager.persist(Item.builder()
+                    .name("Item " + i)
+                    .pricePerDay(1000d)
+                    .stock(5)
+                    .available(true)
+                    .ownerId(OWNER_ID)
+                    .build());
+            for (int j = 0; j < 2; j++) {
+                entityManager.persist(Rental.builder()
+                        .item(item)
+                        .borrowerId(BORROWER_ID)
+                        .startDate(LocalDate.now())
+                        .endDate(LocalDate.now().plusDays(1))
+                        .status(RentalStatus.PENDING)
+                        .paid(false)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @SqlBudget(statements = 1)
+    void getRequestRentals_OneStatementPerPage() {
+        CursorPageDTO<RentalDTO> page = rentalService.getRequestRentals(OWNER_ID, null, null, null, 20);
+
+        assertEquals(10, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @SqlBudget(statements = 1)
+    void getMyRentals_OneStatementPerPage() {
+        assertEquals(10, rentalService.getMyRentals(BORROWER_ID, "item", null, null, 20).getContent().size());
+    }
+
+    @Test
+    @SqlBudget(statements = 2)
+    void getMyRentalsPageDb_PageAndCount() {
+        assertEquals(10, rentalService.getMyRentalsPageDb(BORROWER_ID, null, null, PageRequest.of(0, 4))
+                .getTotalElements());
+    }
+
+    @Test
+    void recorder_FlagsRepeatedItemLoads() {
+        // plain findAll has no entity graph, the eager item is loaded with one select per item
+        SqlStatementRecorder.start();
+        rentalRepository.findAll();
+        SqlStatementRecorder.Recording recording = SqlStatementRecorder.stop();
+
+        assertEquals(6, recording.statementCount());
+        assertEquals(5, recording.repeated(5).values().iterator().next());
+    }
+}
@@ -0,0 +1,100 @@
+package com.minjemin.product.service;
+
+import com.minjemin.product.config.CacheConfig;
+import com.minjemin.product.dto.ItemDTO;
+import com.minjemin.product.dto.RentalDTO;
+import com.minjemin.product.mapper.ItemMapperImpl;
+import com.minjemin.product.mapper.RentalMapper;
+import com.minjemin.product.model.Item;
+import com.minjemin.product.model.Rental;
+import com.minjemin.product.model.RentalStatus;
+import com.minjemin.product.repository.ItemRepository;
+import com.minjemin.product.repository.RentalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Runs the real cache proxies (no transaction, so evictions apply immediately)
+@SpringBootTest(classes = {CacheConfig.class, ItemServiceImpl.class, RentalServiceImpl.class, ItemMapperImpl.class},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"minjemin.cache.max-size=100", "minjemin.cache.ttl=1m"})
+public class ServiceCacheTest {
+
+    @MockitoBean
+    private ItemRepository itemRepository;
+    @MockitoBean
+    private RentalRepository rentalRepository;
+    @MockitoBean
+    private RentalMapper rentalMapper;
+    @MockitoBean
+    private StatService statService;
+    @MockitoBean
+    private ItemSearchIndex itemSearchIndex;
+    @MockitoBean
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private RentalService rentalService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Item item;
+    private Rental rental;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ITEMS).clear();
+        cacheManager.getCache(CacheConfig.RENTALS).clear();
+
+        item = Item.builder().id(1L).name("Tent").pricePerDay(1000d).stock(2).available(true).ownerId("owner").build();
+        rental = Rental.builder().id(10L).item(item).borrowerId("borrower")
+                .startDate(LocalDate.now()).endDate(LocalDate.now()).status(RentalStatus.ONGOING).build();
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.lockById(1L)).thenReturn(1L);
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(rentalRepository.findById(10L)).thenReturn(Optional.of(rental));
+        when(rentalMapper.toDto(any(Rental.class))).thenAnswer(invocation -> RentalDTO.builder()
+                .id(10L).itemId(1L).status(((Rental) invocation.getArgument(0)).getStatus().name()).build());
+    }
+
+    @Test
+    void getItemById_HitsCacheUntilUpdated() {
+        itemService.getItemById(1L);
+        itemService.getItemById(1L);
+        verify(itemRepository, times(1)).findById(1L);
+
+        when(rentalRepository.findIdsByItemId(1L)).thenReturn(List.of(10L));
+        rentalService.getById(10L);
+        itemService.updateItemById(1L, ItemDTO.builder().name("Tent XL").pricePerDay(1000d).stock(2).build());
+
+        assertEquals("Tent XL", itemService.getItemById(1L).getName());
+        // the rename dropped the cached rental too
+        rentalService.getById(10L);
+        verify(rentalRepository, times(2)).findById(10L);
+    }
+
+    @Test
+    void completeRental_EvictsRentalAndItem() {
+        assertEquals("ONGOING", rentalService.getById(10L).getStatus());
+        itemService.getItemById(1L);
+
+        rentalService.completeRental(10L, "owner");
+
+        assertEquals("COMPLETED", rentalService.getById(10L).getStatus());
+        itemService.getItemById(1L);
+        verify(itemRepository, times(2)).findById(1L);
+    }
+}
@@ -21,13 +21,15 @@ const Products = () => {
     const [editingProduct, setEditingProduct] = useState<Product | null>(null);
     const [loading, setLoading] = useState(false);
     const [filters, setFilters] = useState({name: '', minPrice: '', maxPrice: ''});
+    const [appliedFilters, setAppliedFilters] = useState<typeof filters | undefined>();
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
     const [form] = Form.useForm();
     const {keycloak} = useKeycloak();
 
     const token = keycloak.token;
     const headers = {Authorization: `Bearer ${token}`};
 
-    const fetchProducts = async (filters?: { name?: string; minPrice?: string; maxPrice?: string }) => {
+    const fetchProducts = async (filters?: { name?: string; minPrice?: string; maxPrice?: string }, cursor?: string) => {
         setLoading(true);
         try {
             const token = keycloak?.token;
@@ -36,18 +38,21 @@ const Products = () => {
                 return;
             }
 
-            const response = await axios.get<Product[]>(
+            const response = await axios.get<{ content: Product[]; nextCursor: string | null }>(
                 "http://localhost:8080/items/my",
                 {
                     headers: {
                         Authorization: `Bearer ${token}`,
                     },
-                    params: filters
+                    params: {...filters, cursor, size: 100}
                 }
             );
 
-            const sortedData = (response.data ?? []).sort((a, b) => a.id - b.id);
-            setData(sortedData);
+            // pages come in id order, a cursor appends the next page to the rows already shown
+            const page = response.data?.content ?? [];
+            setData(prev => (cursor ? [...prev, ...page] : page).sort((a, b) => a.id - b.id));
+            setNextCursor(response.data?.nextCursor ?? null);
+            setAppliedFilters(filters);
 
         } catch (error) {
             console.error(error);
@@ -57,6 +62,11 @@ const Products = () => {
         }
     };
 
+    const loadMore = () => {
+        if (nextCursor) {
+            fetchProducts(appliedFilters, nextCursor);
+        }
+    };
 
     useEffect(() => {
         fetchProducts();
@@ -216,6 +226,11 @@ const Products = () => {
                 loading={loading}
                 pagination={false}
             />
+            {nextCursor && (
+                <div style={{display: 'flex', justifyContent: 'center', marginTop: 16}}>
+                    <Button onClick={loadMore} loading={loading}>Load more</Button>
+                </div>
+            )}
 
             {/* Modal for Add/Edit Product */}
             <Modal
@@ -13,7 +13,7 @@ import {
     Table,
     Typography
 } from "antd";
-import {useEffect, useState} from "react";
+import {UIEvent, useEffect, useState} from "react";
 import {useKeycloak} from "@react-keycloak/web";
 import {ColumnsType} from "antd/es/table";
 import axios from "axios";
@@ -45,8 +45,12 @@ const Rentals = () => {
     const [isModalVisible, setIsModalVisible] = useState(false);
     const [editingRental, setEditingRental] = useState<Rental | null>(null);
     const [products, setProducts] = useState<Product[]>([]);
+    const [productsCursor, setProductsCursor] = useState<string | null>(null);
+    const [loadingProducts, setLoadingProducts] = useState(false);
     const [loading, setLoading] = useState(false);
     const [filters, setFilters] = useState({name: '', status: ''});
+    const [appliedFilters, setAppliedFilters] = useState<typeof filters | undefined>();
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
     const [form] = Form.useForm();
     const {keycloak} = useKeycloak();
 
@@ -86,16 +90,46 @@ const Rentals = () => {
         }
     };
 
-    const fetchProducts = async () => {
+    const fetchProducts = async (cursor?: string) => {
+        setLoadingProducts(true);
         try {
-            const response = await axios.get("http://localhost:8080/items", {headers});
-            setProducts(response.data);
+            const response = await axios.get<{ content: Product[]; nextCursor: string | null }>(
+                "http://localhost:8080/items", {headers, params: {cursor, size: 100}});
+            const page = response.data.content;
+            setProducts(prev => cursor ? mergeProducts(prev, page) : page);
+            setProductsCursor(response.data.nextCursor ?? null);
         } catch (error) {
             message.error(`Failed to fetch products : ${error}`);
+        } finally {
+            setLoadingProducts(false);
+        }
+    };
+
+    // the dropdown pulls the next page of items when scrolled to the bottom
+    const handleProductsScroll = (e: UIEvent<HTMLDivElement>) => {
+        const target = e.currentTarget;
+        if (productsCursor && !loadingProducts && target.scrollTop + target.offsetHeight >= target.scrollHeight - 20) {
+            fetchProducts(productsCursor);
+        }
+    };
+
+    // typed names are looked up on the server too, so items past the loaded pages can be picked
+    const handleProductSearch = async (q: string) => {
+        if (!q.trim()) return;
+        try {
+            const response = await axios.get<Product[]>("http://localhost:8080/items/search", {headers, params: {q, size: 20}});
+            setProducts(prev => mergeProducts(prev, response.data));
+        } catch (error) {
+            console.error(error);
         }
     };
 
-    const fetchRentals = async (filters?: { name?: string; status?: string }) => {
+    const mergeProducts = (current: Product[], more: Product[]) => {
+        const known = new Set(current.map(p => p.id));
+        return [...current, ...more.filter(p => !known.has(p.id))];
+    };
+
+    const fetchRentals = async (filters?: { name?: string; status?: string }, cursor?: string) => {
         setLoading(true);
         try {
             const token = keycloak?.token;
@@ -104,20 +138,21 @@ const Rentals = () => {
                 return;
             }
 
-            const response = await axios.get<Rental[]>(
+            const response = await axios.get<{ content: Rental[]; nextCursor: string | null }>(
                 "http://localhost:8080/rentals/my",
                 {
                     headers: {
                         Authorization: `Bearer ${token}`,
                     },
-                    params: filters
+                    params: {...filters, cursor, size: 100}
                 }
             );
 
-            console.log(response)
-
-            const sortedData = (response.data ?? []).sort((a, b) => a.id - b.id);
-            setData(sortedData);
+            // a cursor appends the next page to the rows already shown
+            const page = response.data?.content ?? [];
+            setData(prev => (cursor ? [...prev, ...page] : page).sort((a, b) => a.id - b.id));
+            setNextCursor(response.data?.nextCursor ?? null);
+            setAppliedFilters(filters);
 
         } catch (error) {
             console.error(error);
@@ -127,6 +162,12 @@ const Rentals = () => {
         }
     };
 
+    const loadMore = () => {
+        if (nextCursor) {
+            fetchRentals(appliedFilters, nextCursor);
+        }
+    };
+
     const showModal = async (rental: Rental | null = null) => {
         setEditingRental(rental);
         setIsModalVisible(true);
@@ -232,7 +273,7 @@ const Rentals = () => {
                 </Col>
                 <Col span={6}>
                     <Input
-                        placeholder="Search by status"
+                        placeholder="Status, e.g. PENDING,APPROVED"
                         value={filters.status}
                         onChange={(e) => setFilters({...filters, status: e.target.value})}
                     />
@@ -251,6 +292,11 @@ const Rentals = () => {
                 loading={loading}
                 pagination={false}
             />
+            {nextCursor && (
+                <div style={{display: 'flex', justifyContent: 'center', marginTop: 16}}>
+                    <Button onClick={loadMore} loading={loading}>Load more</Button>
+                </div>
+            )}
 
             {/* Modal for Add/Edit Product */}
             <Modal
@@ -273,6 +319,9 @@ const Rentals = () => {
                                 value: item.id
                             }))}
                             onChange={handleDateChange}
+                            onPopupScroll={handleProductsScroll}
+                            onSearch={handleProductSearch}
+                            loading={loadingProducts}
                         />
                     </Form.Item>
                     <Form.Item
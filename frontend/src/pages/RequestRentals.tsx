@@ -46,9 +46,10 @@ const RequestRentals = () => {
     const [data, setData] = useState<Rental[]>([]);
     const [isModalVisible, setIsModalVisible] = useState(false);
     const [editingRental, setEditingRental] = useState<Rental | null>(null);
-    const [products, setProducts] = useState<Product[]>([]);
     const [loading, setLoading] = useState(false);
     const [filters, setFilters] = useState({name: '', status: ''});
+    const [appliedFilters, setAppliedFilters] = useState<typeof filters | undefined>();
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
     const [form] = Form.useForm();
     const {keycloak} = useKeycloak();
 
@@ -57,7 +58,6 @@ const RequestRentals = () => {
 
     useEffect(() => {
         fetchRentals();
-        fetchProducts();
     }, [keycloak?.token]);
 
     const statusColors: Record<string, string> = {
@@ -72,16 +72,7 @@ const RequestRentals = () => {
         return end.diff(start, "day") + 1;
     };
 
-    const fetchProducts = async () => {
-        try {
-            const response = await axios.get("http://localhost:8080/items", {headers});
-            setProducts(response.data);
-        } catch (error) {
-            message.error(`Failed to fetch products : ${error}`);
-        }
-    };
-
-    const fetchRentals = async (filters?: { name?: string; status?: string }) => {
+    const fetchRentals = async (filters?: { name?: string; status?: string }, cursor?: string) => {
         setLoading(true);
         try {
             const token = keycloak?.token;
@@ -90,18 +81,21 @@ const RequestRentals = () => {
                 return;
             }
 
-            const response = await axios.get<Rental[]>(
+            const response = await axios.get<{ content: Rental[]; nextCursor: string | null }>(
                 "http://localhost:8080/rentals/request",
                 {
                     headers: {
                         Authorization: `Bearer ${token}`,
                     },
-                    params: filters
+                    params: {...filters, cursor, size: 100}
                 }
             );
 
-            const sortedData = (response.data ?? []).sort((a, b) => a.id - b.id);
-            setData(sortedData);
+            // a cursor appends the next page to the rows already shown
+            const page = response.data?.content ?? [];
+            setData(prev => (cursor ? [...prev, ...page] : page).sort((a, b) => a.id - b.id));
+            setNextCursor(response.data?.nextCursor ?? null);
+            setAppliedFilters(filters);
 
         } catch (error) {
             console.error(error);
@@ -111,6 +105,12 @@ const RequestRentals = () => {
         }
     };
 
+    const loadMore = () => {
+        if (nextCursor) {
+            fetchRentals(appliedFilters, nextCursor);
+        }
+    };
+
     const fetchRentalById = async (id: any) => {
         try {
             const response = await axios.get(`http://localhost:8080/rentals/${id}`, {headers});
@@ -242,7 +242,7 @@ const RequestRentals = () => {
                 </Col>
                 <Col span={6}>
                     <Input
-                        placeholder="Search by status"
+                        placeholder="Status, e.g. PENDING,APPROVED"
                         value={filters.status}
                         onChange={(e) => setFilters({...filters, status: e.target.value})}
                     />
@@ -261,6 +261,11 @@ const RequestRentals = () => {
                 loading={loading}
                 pagination={false}
             />
+            {nextCursor && (
+                <div style={{display: 'flex', justifyContent: 'center', marginTop: 16}}>
+                    <Button onClick={loadMore} loading={loading}>Load more</Button>
+                </div>
+            )}
 
             {/* Modal for Add/Edit Product */}
             <Modal